@@ -12,8 +12,7 @@ public class Barge extends Ship {
      * @param pos     - upper left position of the barge
      */
     public Barge(Compass bearing, IPosition pos) {
-        super(Barge.NAME, bearing, pos);
-        getPositions().add(new Position(pos.getRow(), pos.getColumn()));
+        super(Barge.NAME, pos, ShipShape.of(ShipKind.BARGE, bearing));
     }
 
     @Override
@@ -0,0 +1,190 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plays many complete games without a user: each game pits a random fleet
+ * against a strategy, driving {@link Game#fire(IPosition)}. The games are
+ * split in halves until small enough, and the halves are spread over the
+ * cores of a fork/join pool, idle workers stealing from busy ones. Each
+ * slice of games keeps its own strategy, fleet generator and statistics,
+ * merged as the slices complete, so memory does not grow with the number of
+ * games.
+ * <p>
+ * Game g draws its fleet and the strategy's random choices from the seeds
+ * {@link RunSeeds} derives for it, and from nothing else, so the outcome of
+ * a run does not depend on the number of workers, and
+ * {@link #replay(long, IStrategy)} plays any one game again exactly as it
+ * was played in the batch.
+ */
+public class BatchSimulator {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // games played by a slice without splitting it further
+    private static final long SLICE = 256;
+    // density maps shared by the strategies of main
+    private static final int CACHED_MAPS = 1 << 16;
+
+    private final BoardSpec spec;
+    private final Supplier<? extends IStrategy> strategies;
+    private final RunSeeds seeds;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param spec       the board and the fleet composition
+     * @param strategies makes a new strategy for the board, one per slice of
+     *                   games
+     * @param seed       seed of the run
+     */
+    public BatchSimulator(BoardSpec spec, Supplier<? extends IStrategy> strategies, long seed) {
+        this(spec, strategies, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param spec       the board and the fleet composition
+     * @param strategies makes a new strategy for the board, one per slice of
+     *                   games
+     * @param seed       seed of the run
+     * @param pool       the pool playing the games
+     */
+    public BatchSimulator(BoardSpec spec, Supplier<? extends IStrategy> strategies, long seed, ForkJoinPool pool) {
+        this.spec = spec;
+        this.strategies = strategies;
+        this.seeds = new RunSeeds(seed);
+        this.pool = pool;
+    }
+
+    /**
+     * @param games the number of games to play
+     * @return the statistics of the games played
+     */
+    public SimulationStats run(long games) {
+        long start = System.nanoTime();
+        SimulationStats stats = pool.invoke(new Slice(0, games));
+        long nanos = Math.max(1, System.nanoTime() - start);
+        LOGGER.info("{} jogos simulados em {} ms ({} jogos/s)", games, nanos / 1_000_000,
+                games * 1_000_000_000L / nanos);
+        return stats;
+    }
+
+    /**
+     * Plays one game of the run again, on the calling thread
+     *
+     * @param game     the number of the game in the run, from 0
+     * @param strategy a strategy of the kind the run used
+     * @return the game, played to the end
+     */
+    public Game replay(long game, IStrategy strategy) {
+        return play(new FleetGenerator(spec), game, strategy, new SimulationStats(spec));
+    }
+
+    /**
+     * Plays game number g of the run to the end, or until every cell of the
+     * board was shot; the fleet only depends on the game's seed, whatever
+     * the generator played before
+     */
+    private Game play(FleetGenerator generator, long g, IStrategy strategy, SimulationStats stats) {
+        SplittableRandom random = seeds.gameRandom(g);
+        Fleet fleet = generator.generate(random.split());
+        Game game = new Game(fleet);
+        strategy.reset(random.split());
+        int shots = strategy.playOut(game);
+        stats.recordGame(game, shots);
+        recordSinks(fleet, game, stats);
+        return game;
+    }
+
+    /**
+     * Records the order the ships of a played game sank in: a ship sinks with
+     * the last of its cells shot
+     */
+    private static void recordSinks(IFleet fleet, IGame game, SimulationStats stats) {
+        Map<IShip, Integer> unhit = new IdentityHashMap<>();
+        for (IShip ship : fleet.getShips())
+            unhit.put(ship, ship.getPositions().size());
+        int sunk = 0;
+        for (IPosition pos : game.getShots()) {
+            IShip ship = fleet.shipAt(pos);
+            if (ship == null || unhit.merge(ship, -1, Integer::sum) != 0)
+                continue;
+            ShipKind kind = ShipKind.ofCategory(ship.getCategory());
+            sunk++;
+            if (kind != null)
+                stats.recordSink(kind, sunk);
+        }
+    }
+
+    /**
+     * Simulates games on the default board and logs their statistics
+     *
+     * @param args number of games (1 000 000 by default), strategy ("caca"
+     *             for hunt/target, "densidade" by default), seed and,
+     *             optionally, an {@link OpeningBook} file to open with
+     * @throws IOException if the opening book cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        String name = args.length > 1 ? args[1] : "densidade";
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        OpeningBook book = args.length > 3 ? OpeningBook.load(Path.of(args[3])) : null;
+
+        BoardSpec spec = BoardSpec.DEFAULT;
+        Supplier<IStrategy> players;
+        ProbabilityCache cache = name.equals("caca") ? null : new ProbabilityCache(spec, CACHED_MAPS);
+        if (cache == null)
+            players = () -> new HuntTargetStrategy(spec);
+        else {
+            Placements placements = new Placements(spec);
+            players = () -> new DensityTargeting(placements, null, cache);
+        }
+        Supplier<IStrategy> strategies = book == null ? players
+                : () -> new OpeningBookStrategy(book, players.get());
+        new BatchSimulator(spec, strategies, seed).run(games).log();
+        if (cache != null)
+            cache.log();
+    }
+
+    private class Slice extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long first;
+        private final long end;
+
+        Slice(long first, long end) {
+            this.first = first;
+            this.end = end;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (end - first > SLICE) {
+                long middle = (first + end) >>> 1;
+                Slice right = new Slice(middle, end);
+                right.fork();
+                SimulationStats stats = new Slice(first, middle).compute();
+                stats.merge(right.join());
+                return stats;
+            }
+
+            SimulationStats stats = new SimulationStats(spec);
+            IStrategy strategy = strategies.get();
+            FleetGenerator generator = new FleetGenerator(spec);
+            for (long g = first; g < end; g++)
+                play(generator, g, strategy, stats);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A set of board cells packed into {@code long} words, one bit per cell in
+ * row-major order. Cells outside the board are never members.
+ */
+public class Bitboard implements CellSet {
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = 63;
+
+    private final int rows;
+    private final int columns;
+    private final long[] words;
+
+    /**
+     * @param rows    number of rows of the board
+     * @param columns number of columns of the board
+     */
+    public Bitboard(int rows, int columns) {
+        assert rows > 0 && columns > 0;
+
+        this.rows = rows;
+        this.columns = columns;
+        this.words = new long[(rows * columns + WORD_MASK) >>> WORD_SHIFT];
+    }
+
+    /**
+     * @return true if the given cell lies on the board
+     */
+    public boolean isInside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.CellSet#get(int, int)
+     */
+    @Override
+    public boolean get(int row, int column) {
+        if (!isInside(row, column))
+            return false;
+        int cell = row * columns + column;
+        return (words[cell >>> WORD_SHIFT] & (1L << (cell & WORD_MASK))) != 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.CellSet#set(int, int)
+     */
+    @Override
+    public void set(int row, int column) {
+        if (isInside(row, column)) {
+            int cell = row * columns + column;
+            words[cell >>> WORD_SHIFT] |= 1L << (cell & WORD_MASK);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.CellSet#clear(int, int)
+     */
+    @Override
+    public void clear(int row, int column) {
+        if (isInside(row, column)) {
+            int cell = row * columns + column;
+            words[cell >>> WORD_SHIFT] &= ~(1L << (cell & WORD_MASK));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The dimensions of a board and the composition of the fleet placed on it.
+ * Boards up to {@link #DENSE_LIMIT} cells keep one entry per cell; larger
+ * boards only store the cells in use.
+ */
+public final class BoardSpec {
+    /**
+     * Largest number of cells of a board stored densely
+     */
+    public static final long DENSE_LIMIT = 1L << 22;
+
+    /**
+     * The standard game: a 10x10 board with a galleon, a frigate, two
+     * carracks, three caravels and four barges
+     */
+    public static final BoardSpec DEFAULT = new BoardSpec(IFleet.BOARD_SIZE, IFleet.BOARD_SIZE);
+
+    private static Map<ShipKind, Integer> standardFleet() {
+        Map<ShipKind, Integer> fleet = new EnumMap<>(ShipKind.class);
+        fleet.put(ShipKind.GALLEON, 1);
+        fleet.put(ShipKind.FRIGATE, 1);
+        fleet.put(ShipKind.CARRACK, 2);
+        fleet.put(ShipKind.CARAVEL, 3);
+        fleet.put(ShipKind.BARGE, 4);
+        return fleet;
+    }
+
+    private final int rows;
+    private final int columns;
+    private final int[] fleet;
+    private final int fleetSize;
+
+    /**
+     * A board with the standard fleet
+     *
+     * @param rows    number of rows
+     * @param columns number of columns
+     */
+    public BoardSpec(int rows, int columns) {
+        this(rows, columns, standardFleet());
+    }
+
+    /**
+     * @param rows    number of rows
+     * @param columns number of columns
+     * @param fleet   number of ships of each kind; missing kinds count as 0
+     */
+    public BoardSpec(int rows, int columns, Map<ShipKind, Integer> fleet) {
+        if (rows <= 0 || columns <= 0)
+            throw new IllegalArgumentException("ERROR! invalid board size " + rows + "x" + columns);
+
+        this.rows = rows;
+        this.columns = columns;
+        this.fleet = new int[ShipKind.values().length];
+        int total = 0;
+        for (Map.Entry<ShipKind, Integer> e : fleet.entrySet()) {
+            if (e.getValue() < 0)
+                throw new IllegalArgumentException("ERROR! invalid number of ships " + e);
+            this.fleet[e.getKey().ordinal()] = e.getValue();
+            total += e.getValue();
+        }
+        this.fleetSize = total;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the number of ships of the given kind in a full fleet
+     */
+    public int getCount(ShipKind kind) {
+        return fleet[kind.ordinal()];
+    }
+
+    /**
+     * @return the number of ships in a full fleet
+     */
+    public int getFleetSize() {
+        return fleetSize;
+    }
+
+    /**
+     * @return the ships of a full fleet, largest kind first, with the ships
+     * of each kind next to each other
+     */
+    public ShipKind[] largestFirst() {
+        ShipKind[] ships = new ShipKind[fleetSize];
+        int n = 0;
+        ShipKind[] kinds = ShipKind.values();
+        for (int k = kinds.length - 1; k >= 0; k--)
+            for (int i = 0; i < fleet[k]; i++)
+                ships[n++] = kinds[k];
+        return ships;
+    }
+
+    /**
+     * @return true if the given cell lies on the board
+     */
+    public boolean isInside(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * @return true if the board is small enough to be stored densely
+     */
+    public boolean isDense() {
+        return (long) rows * columns <= DENSE_LIMIT;
+    }
+
+    /**
+     * @return an empty set of cells of this board
+     */
+    public CellSet newCellSet() {
+        return isDense() ? new Bitboard(rows, columns) : new SparseCellSet(rows, columns);
+    }
+
+    /**
+     * @return an empty map over the cells of this board
+     */
+    public CellMap newCellMap() {
+        return isDense() ? new DenseCellMap(rows, columns) : new SparseCellMap(rows, columns);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof BoardSpec))
+            return false;
+        BoardSpec spec = (BoardSpec) other;
+        return rows == spec.rows && columns == spec.columns && Arrays.equals(fleet, spec.fleet);
+    }
+
+    @Override
+    public int hashCode() {
+        return (rows * 31 + columns) * 31 + Arrays.hashCode(fleet);
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + columns;
+    }
+}
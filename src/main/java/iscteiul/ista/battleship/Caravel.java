@@ -12,26 +12,14 @@ public class Caravel extends Ship {
      * @param pos     initial point for positioning the Caravel
      */
     public Caravel(Compass bearing, IPosition pos) throws NullPointerException, IllegalArgumentException {
-        super(Caravel.NAME, bearing, pos);
-
-        //if (bearing == null)
-           // throw new NullPointerException("ERROR! invalid bearing for the caravel");
-
-        switch (bearing) {
-            case NORTH:
-            case SOUTH:
-                for (int r = 0; r < SIZE; r++)
-                    getPositions().add(new Position(pos.getRow() + r, pos.getColumn()));
-                break;
-            case EAST:
-            case WEST:
-                for (int c = 0; c < SIZE; c++)
-                    getPositions().add(new Position(pos.getRow(), pos.getColumn() + c));
-                break;
-            default:
-                throw new IllegalArgumentException("ERROR! invalid bearing for the caravel");
-        }
+        super(Caravel.NAME, pos, shapeFor(bearing));
+    }
 
+    private static ShipShape shapeFor(Compass bearing) {
+        ShipShape shape = ShipShape.of(ShipKind.CARAVEL, bearing);
+        if (shape == null)
+            throw new IllegalArgumentException("ERROR! invalid bearing for the caravel");
+        return shape;
     }
 
     /*
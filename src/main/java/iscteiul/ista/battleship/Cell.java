@@ -0,0 +1,123 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Immutable board coordinates. Cells close to the board are interned, so
+ * {@link #of(int, int)} returns the same instance for the same coordinates
+ * and building ships does not allocate one object per segment.
+ * <p>
+ * A cell carries no state: occupancy and hits are tracked by {@link Fleet}
+ * and {@link Ship}, so {@link #occupy()} and {@link #shoot()} are not
+ * supported.
+ */
+public final class Cell implements IPosition {
+    // ships placed at the edge of the board reach a few cells beyond it
+    private static final int MARGIN = 4;
+    private static final int EXTENT = 64;
+    private static final int SPAN = MARGIN + EXTENT;
+
+    private static final Cell[] INTERNED = new Cell[SPAN * SPAN];
+
+    static {
+        for (int r = 0; r < SPAN; r++)
+            for (int c = 0; c < SPAN; c++)
+                INTERNED[r * SPAN + c] = new Cell(r - MARGIN, c - MARGIN);
+    }
+
+    /**
+     * @return the cell with the given coordinates
+     */
+    public static Cell of(int row, int column) {
+        int r = row + MARGIN;
+        int c = column + MARGIN;
+        if (r >= 0 && r < SPAN && c >= 0 && c < SPAN)
+            return INTERNED[r * SPAN + c];
+        return new Cell(row, column);
+    }
+
+    private final int row;
+    private final int column;
+
+    private Cell(int row, int column) {
+        this.row = row;
+        this.column = column;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getRow()
+     */
+    @Override
+    public int getRow() {
+        return row;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#getColumn()
+     */
+    @Override
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * row + column;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (other instanceof IPosition) {
+            IPosition pos = (IPosition) other;
+            return row == pos.getRow() && column == pos.getColumn();
+        }
+        return false;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IPosition#isAdjacentTo(battleship.IPosition)
+     */
+    @Override
+    public boolean isAdjacentTo(IPosition other) {
+        return (Math.abs(row - other.getRow()) <= 1 && Math.abs(column - other.getColumn()) <= 1);
+    }
+
+    @Override
+    public void occupy() {
+        throw new UnsupportedOperationException("cells are immutable, occupancy is kept by the fleet");
+    }
+
+    @Override
+    public void shoot() {
+        throw new UnsupportedOperationException("cells are immutable, hits are kept by the ship");
+    }
+
+    @Override
+    public boolean isOccupied() {
+        return false;
+    }
+
+    @Override
+    public boolean isHit() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return ("Linha = " + row + " Coluna = " + column);
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Maps cells of a board to int values. Cells that were never given a value,
+ * and cells outside the board, map to 0.
+ */
+public interface CellMap {
+    int get(int row, int column);
+
+    /**
+     * Stores a value for a cell of the board; storing 0 removes the cell
+     */
+    void put(int row, int column, int value);
+}
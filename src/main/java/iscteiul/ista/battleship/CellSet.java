@@ -0,0 +1,16 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A set of cells of a board. Cells outside the board are never members and
+ * adding them has no effect.
+ */
+public interface CellSet {
+    boolean get(int row, int column);
+
+    void set(int row, int column);
+
+    void clear(int row, int column);
+}
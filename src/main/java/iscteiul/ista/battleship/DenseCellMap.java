@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A {@link CellMap} holding one int per cell of the board
+ */
+public class DenseCellMap implements CellMap {
+    private final int rows;
+    private final int columns;
+    private final int[] values;
+
+    public DenseCellMap(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new int[rows * columns];
+    }
+
+    @Override
+    public int get(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return 0;
+        return values[row * columns + column];
+    }
+
+    @Override
+    public void put(int row, int column, int value) {
+        if (row >= 0 && row < rows && column >= 0 && column < columns)
+            values[row * columns + column] = value;
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * Shoots where ships are most likely to be. Every placement of every kind of
+ * ship still afloat is weighed if it agrees with what is known: it covers no
+ * miss, no sunk ship and no cell touching one, and it touches no unresolved
+ * hit without covering it, since that hit belongs to another ship. The
+ * density of a cell adds up the weights of the placements covering it, and
+ * the unshot cell of highest density is shot next, ties going to the first
+ * such cell or, given a source of randomness, to any of them alike.
+ * <p>
+ * Placements covering unresolved hits weigh {@link #HIT_WEIGHT} times more
+ * per hit covered, so that a wounded ship is finished before hunting for the
+ * next. While no ship is wounded a placement weighs just the number of
+ * ships of its kind afloat, and the densities come from a
+ * {@link HeatMapKernel}. An {@link EndgameSolver}, if given, chooses the
+ * shots once it can solve the rest of the game, and a
+ * {@link ProbabilityCache}, if given, saves recomputing the densities of
+ * states already met. All state lives in arrays sized for the board, so
+ * choosing a shot without a cache allocates nothing.
+ */
+public class DensityTargeting extends TrackingStrategy {
+    /**
+     * Weight multiplier of a placement for each unresolved hit it covers
+     */
+    public static final long HIT_WEIGHT = 64;
+
+    /**
+     * Most shots of a state whose densities are cached; later states are
+     * seldom met twice
+     */
+    public static final int CACHED_SHOTS = 8;
+
+    private final Placements placements;
+    private final ShipKind[] kinds = ShipKind.values();
+    // counts the placements while no ship is wounded
+    private final HeatMapKernel kernel;
+    private final int[] heat;
+    // closes out endgames, if given
+    private final EndgameSolver solver;
+    // densities of the states already met, if given
+    private final ProbabilityCache cache;
+
+    // weight of the placements covering each cell
+    private final long[] density;
+    private long totalDensity;
+
+    /**
+     * @param spec the board and the fleet composition to play against; its
+     *             area must not exceed {@link Placements#MAX_CELLS}
+     */
+    public DensityTargeting(BoardSpec spec) {
+        this(new Placements(spec));
+    }
+
+    /**
+     * @param placements the placements of the board, which may be shared by
+     *                   several strategies
+     */
+    public DensityTargeting(Placements placements) {
+        this(placements, null);
+    }
+
+    /**
+     * @param placements the placements of the board, which may be shared by
+     *                   several strategies
+     * @param solver     plays the shots once it can solve the rest of the
+     *                   game, or null
+     */
+    public DensityTargeting(Placements placements, EndgameSolver solver) {
+        this(placements, solver, null);
+    }
+
+    /**
+     * @param placements the placements of the board, which may be shared by
+     *                   several strategies
+     * @param solver     plays the shots once it can solve the rest of the
+     *                   game, or null
+     * @param cache      densities already computed for the same board, which
+     *                   may be shared by several strategies, or null
+     */
+    public DensityTargeting(Placements placements, EndgameSolver solver, ProbabilityCache cache) {
+        super(placements.getSpec());
+        if (cache != null && !cache.getSpec().equals(spec))
+            throw new IllegalArgumentException("ERROR! cache of board " + cache.getSpec() + " used on " + spec);
+        this.solver = solver;
+        this.cache = cache;
+        this.placements = placements;
+        this.density = new long[cells];
+        this.kernel = HeatMapKernel.create(spec);
+        this.heat = new int[cells];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#nextShot()
+     */
+    @Override
+    public IPosition nextShot() {
+        if (solver != null) {
+            int cell = solver.solve(shot, hits, blocked, afloat);
+            if (cell >= 0)
+                return toPosition(cell);
+        }
+        updateDensity();
+
+        int best = -1;
+        long bestDensity = -1;
+        int ties = 0;
+        for (int cell = 0; cell < density.length; cell++) {
+            if (isSet(shot, cell))
+                continue;
+            if (density[cell] > bestDensity) {
+                best = cell;
+                bestDensity = density[cell];
+                ties = 1;
+            } else if (density[cell] == bestDensity && random != null && random.nextInt(++ties) == 0) {
+                // keeps each of the cells tied so far with equal probability
+                best = cell;
+            }
+        }
+        if (best < 0)
+            throw new IllegalStateException("ERROR! every cell of the board has been shot");
+        return toPosition(best);
+    }
+
+    /**
+     * @return the weight of the placements covering the cell, as of the last
+     * shot chosen
+     */
+    public long getDensity(int row, int column) {
+        return density[row * spec.getColumns() + column];
+    }
+
+    /**
+     * @return the share of the density of the unshot cells held by the cell,
+     * as of the last shot chosen; 0 for cells already shot
+     */
+    public double probability(int row, int column) {
+        int cell = row * spec.getColumns() + column;
+        if (totalDensity == 0 || isSet(shot, cell))
+            return 0;
+        return (double) density[cell] / totalDensity;
+    }
+
+    private void updateDensity() {
+        boolean cached = cache != null && shotCount() <= CACHED_SHOTS;
+        if (!cached || !cache.get(knowledgeHash, density)) {
+            if (isHunting()) {
+                kernel.compute(blocked, afloat, heat);
+                for (int cell = 0; cell < cells; cell++)
+                    density[cell] = heat[cell];
+            } else
+                weighPlacements();
+            if (cached)
+                cache.put(knowledgeHash, density);
+        }
+
+        totalDensity = 0;
+        for (int cell = 0; cell < density.length; cell++)
+            if (!isSet(shot, cell))
+                totalDensity += density[cell];
+    }
+
+    private int shotCount() {
+        int count = 0;
+        for (long word : shot)
+            count += Long.bitCount(word);
+        return count;
+    }
+
+    private boolean isHunting() {
+        for (long word : hits)
+            if (word != 0)
+                return false;
+        return true;
+    }
+
+    private void weighPlacements() {
+        Arrays.fill(density, 0L);
+        for (ShipKind kind : kinds) {
+            int ships = afloat[kind.ordinal()];
+            if (ships == 0)
+                continue;
+            for (int p = placements.first(kind); p < placements.end(kind); p++) {
+                if (!placements.fits(p, blocked) || !placements.isolatedFrom(p, hits))
+                    continue;
+                long weight = ships;
+                for (int h = placements.overlap(p, hits); h > 0; h--)
+                    weight *= HIT_WEIGHT;
+                for (int i = 0; i < placements.cellCount(p); i++)
+                    density[placements.cell(p, i)] += weight;
+            }
+        }
+    }
+}
@@ -0,0 +1,450 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * Finds the shot that minimizes the expected number of shots left to sink
+ * the fleet, once few enough ways of laying the ships afloat remain. The
+ * solver lists every way of laying them that agrees with what is known,
+ * taking them as equally likely, and searches the shots over the cells those
+ * layouts may cover. A search state is the set of those cells shot, the set
+ * of them hit and the set of them in ships sunk, each a 64-bit mask; ships
+ * never touch, so the last set tells which ships were sunk. The layouts
+ * still possible and which of their cells were shot decide the value of a
+ * state, which is kept under those in a transposition table of primitive
+ * arrays; the search allocates nothing.
+ * <p>
+ * {@link #solve(long[], long[], long[], int[])} gives up, answering -1, when
+ * there are more than {@link #MAX_LAYOUTS} layouts or more than
+ * {@link #MAX_CANDIDATES} cells to consider, or when it has visited its
+ * budget of search nodes. The budget counts nodes rather than time so that
+ * the same knowledge always gets the same answer, as replaying a batch with
+ * {@link RunSeeds} requires.
+ */
+public class EndgameSolver {
+    /**
+     * Most layouts of the ships afloat the solver takes on
+     */
+    public static final int MAX_LAYOUTS = 256;
+    /**
+     * Most unshot cells covered by those layouts the solver takes on
+     */
+    public static final int MAX_CANDIDATES = 10;
+    /**
+     * Search budget of the default solver. Over 2000 games of
+     * {@link DensityTargeting} on the default board the largest solve took
+     * 205 277 nodes, so the budget only cuts searches larger than any seen
+     * there.
+     */
+    public static final long DEFAULT_NODES = 1L << 18;
+
+    private static final int PROBES = 8;
+    // most distinct ships a shot can sink, over all the layouts
+    private static final int MAX_SINKINGS = 64;
+    private static final ShipKind[] KINDS = ShipKind.values();
+
+    private final BoardSpec spec;
+    private final Placements placements;
+    private final long maxNodes;
+    private final int words;
+
+    // the kinds of the ships afloat, largest first, and per depth of the
+    // enumeration the cells taken and the placement chosen
+    private final int[] pending;
+    private int ships;
+    private final long[][] forbidden;
+    private final long[][] covered;
+    private final int[] chosen;
+
+    // per layout, the cells it covers and the placement of each ship
+    private final long[] layoutCells;
+    private final int[] layoutPlacements;
+    private int layoutCount;
+
+    // the cells considered, and per cell its number among them or -1
+    private final int[] candidates;
+    private final int[] candidateIndex;
+    private int candidateCount;
+
+    // per layout, masks over the cells considered of the layout and of each of its ships
+    private final long[] layouts;
+    private final long[] layoutShips;
+
+    // per search depth, the sinkings a shot may cause and how many layouts cause each
+    private final long[][] sinkings;
+    private final int[][] sinkingCounts;
+    // per search depth, how many layouts still possible cover each cell,
+    // and which layouts those are
+    private final int[][] cellHits;
+    private final int[][] possible;
+    private final int[] possibleCount;
+
+    private final long[] tableShot;
+    // per entry, the cells shot among those of the layouts still possible,
+    // and a hash of the set of those layouts
+    private final long[] tableLayouts;
+    private final double[] tableValue;
+    private final int[] tableStamp;
+    private final int tableMask;
+    private int stamp;
+
+    private long nodes;
+    private boolean aborted;
+    private double expectedShots;
+    private int rootMove;
+
+    /**
+     * @param placements  the placements of the board
+     * @param tableBits   log2 of the number of entries of the transposition
+     *                    table
+     * @param maxNodes   most search nodes visited by each solve, layouts
+     *                    listed included
+     */
+    public EndgameSolver(Placements placements, int tableBits, long maxNodes) {
+        if (tableBits < 4 || tableBits > 24)
+            throw new IllegalArgumentException("ERROR! transposition table of 2^" + tableBits + " entries");
+        if (maxNodes <= 0)
+            throw new IllegalArgumentException("ERROR! search budget of " + maxNodes + " nodes");
+        this.spec = placements.getSpec();
+        this.placements = placements;
+        this.maxNodes = maxNodes;
+        this.words = placements.words();
+
+        int fleet = spec.getFleetSize();
+        this.pending = new int[fleet];
+        this.forbidden = new long[fleet + 1][words];
+        this.covered = new long[fleet + 1][words];
+        this.chosen = new int[fleet];
+        this.layoutCells = new long[MAX_LAYOUTS * words];
+        this.layoutPlacements = new int[MAX_LAYOUTS * fleet];
+        this.candidates = new int[MAX_CANDIDATES];
+        this.candidateIndex = new int[spec.getRows() * spec.getColumns()];
+        this.layouts = new long[MAX_LAYOUTS];
+        this.layoutShips = new long[MAX_LAYOUTS * fleet];
+        this.sinkings = new long[MAX_CANDIDATES + 1][MAX_SINKINGS];
+        this.sinkingCounts = new int[MAX_CANDIDATES + 1][MAX_SINKINGS];
+        this.cellHits = new int[MAX_CANDIDATES + 1][MAX_CANDIDATES];
+        this.possible = new int[MAX_CANDIDATES + 1][MAX_LAYOUTS];
+        this.possibleCount = new int[MAX_CANDIDATES + 1];
+
+        int size = 1 << tableBits;
+        this.tableShot = new long[size];
+        this.tableLayouts = new long[size];
+        this.tableValue = new double[size];
+        this.tableStamp = new int[size];
+        this.tableMask = size - 1;
+    }
+
+    /**
+     * A solver with a table of 2^16 entries and a budget of
+     * {@link #DEFAULT_NODES} nodes
+     */
+    public EndgameSolver(Placements placements) {
+        this(placements, 16, DEFAULT_NODES);
+    }
+
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @param shot    the cells shot, one bit per cell numbered
+     *                row * columns + column
+     * @param hits    the hits on ships not sunk yet
+     * @param blocked the cells no ship afloat can cover: misses, sunk ships
+     *                and the cells touching them
+     * @param afloat  per kind ordinal, the ships of the kind afloat
+     * @return the cell to shoot, or -1 if the solver gave up
+     */
+    public int solve(long[] shot, long[] hits, long[] blocked, int[] afloat) {
+        nodes = 0;
+        aborted = false;
+        expectedShots = Double.NaN;
+
+        // the layouts can only cover hits and cells still open; too many of
+        // those and there is no point listing them
+        int open = 0;
+        for (int w = 0; w < words; w++)
+            open += Long.bitCount(~shot[w] & ~blocked[w] & lastWordMask(w));
+        if (open > MAX_CANDIDATES)
+            return -1;
+
+        if (!enumerate(hits, blocked, afloat) || !selectCandidates(shot))
+            return -1;
+
+        if (++stamp == 0) {
+            Arrays.fill(tableStamp, 0);
+            stamp = 1;
+        }
+        rootMove = -1;
+        double value = expected(0, 0, 0, 0);
+        if (aborted || rootMove < 0)
+            return -1;
+        expectedShots = value;
+        return candidates[rootMove];
+    }
+
+    private long lastWordMask(int word) {
+        int cells = spec.getRows() * spec.getColumns();
+        return word < words - 1 || (cells & 63) == 0 ? -1L : (1L << (cells & 63)) - 1;
+    }
+
+    /**
+     * @return the expected number of shots left, the first one included, as
+     * of the last successful solve; NaN if it gave up
+     */
+    public double getExpectedShots() {
+        return expectedShots;
+    }
+
+    /**
+     * Lists the layouts of the ships afloat that cover every hit and avoid
+     * the blocked cells
+     *
+     * @return false if there are too many or the budget ran out
+     */
+    private boolean enumerate(long[] hits, long[] blocked, int[] afloat) {
+        ships = 0;
+        for (int k = KINDS.length - 1; k >= 0; k--)
+            for (int i = 0; i < afloat[k]; i++)
+                pending[ships++] = k;
+        if (ships == 0)
+            return false;
+
+        System.arraycopy(blocked, 0, forbidden[0], 0, words);
+        Arrays.fill(covered[0], 0L);
+        layoutCount = 0;
+        return place(0, hits);
+    }
+
+    private boolean place(int depth, long[] hits) {
+        if (depth == ships) {
+            for (int w = 0; w < words; w++)
+                if ((hits[w] & ~covered[depth][w]) != 0)
+                    return true;
+            if (layoutCount == MAX_LAYOUTS)
+                return false;
+            System.arraycopy(covered[depth], 0, layoutCells, layoutCount * words, words);
+            System.arraycopy(chosen, 0, layoutPlacements, layoutCount * ships, ships);
+            layoutCount++;
+            return true;
+        }
+        if (++nodes > maxNodes)
+            return false;
+
+        ShipKind kind = KINDS[pending[depth]];
+        int start = depth > 0 && pending[depth] == pending[depth - 1] ? chosen[depth - 1] + 1 : placements.first(kind);
+        for (int p = start; p < placements.end(kind); p++) {
+            if (!placements.fits(p, forbidden[depth]) || !placements.isolatedFrom(p, hits))
+                continue;
+            chosen[depth] = p;
+            System.arraycopy(forbidden[depth], 0, forbidden[depth + 1], 0, words);
+            placements.addHalo(p, forbidden[depth + 1]);
+            System.arraycopy(covered[depth], 0, covered[depth + 1], 0, words);
+            placements.addFootprint(p, covered[depth + 1]);
+            if (!place(depth + 1, hits))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Numbers the unshot cells some layout covers and rewrites the layouts
+     * and their ships as masks over them
+     *
+     * @return false if there are none or too many
+     */
+    private boolean selectCandidates(long[] shot) {
+        if (layoutCount == 0)
+            return false;
+        candidateCount = 0;
+        for (int w = 0; w < words; w++) {
+            long union = 0;
+            for (int l = 0; l < layoutCount; l++)
+                union |= layoutCells[l * words + w];
+            for (long open = union & ~shot[w]; open != 0; open &= open - 1) {
+                if (candidateCount == MAX_CANDIDATES)
+                    return false;
+                candidates[candidateCount++] = (w << 6) + Long.numberOfTrailingZeros(open);
+            }
+        }
+        if (candidateCount == 0)
+            return false;
+
+        Arrays.fill(candidateIndex, -1);
+        for (int i = 0; i < candidateCount; i++)
+            candidateIndex[candidates[i]] = i;
+        for (int l = 0; l < layoutCount; l++) {
+            long layout = 0;
+            for (int s = 0; s < ships; s++) {
+                int p = layoutPlacements[l * ships + s];
+                long ship = 0;
+                for (int i = 0; i < placements.cellCount(p); i++) {
+                    int index = candidateIndex[placements.cell(p, i)];
+                    if (index >= 0)
+                        ship |= 1L << index;
+                }
+                layoutShips[l * ships + s] = ship;
+                layout |= ship;
+            }
+            layouts[l] = layout;
+        }
+        return true;
+    }
+
+    /**
+     * @return the cells of the ships of the layout all of whose cells were
+     * hit
+     */
+    private long sunkIn(int layout, long hit) {
+        long sunk = 0;
+        for (int s = layout * ships; s < (layout + 1) * ships; s++)
+            if ((layoutShips[s] & ~hit) == 0)
+                sunk |= layoutShips[s];
+        return sunk;
+    }
+
+    private boolean agrees(int layout, long shot, long hit, long sunk) {
+        return (layouts[layout] & shot) == hit && sunkIn(layout, hit) == sunk;
+    }
+
+    /**
+     * @return the expected shots to sink the fleet once the candidate cells
+     * in shot were shot, those in hit were hit and those in sunk were seen
+     * sinking
+     */
+    private double expected(long shot, long hit, long sunk, int depth) {
+        if (aborted)
+            return 0;
+        if (++nodes > maxNodes) {
+            aborted = true;
+            return 0;
+        }
+
+        // the layouts possible here are among those possible one shot up
+        int[] here = possible[depth];
+        int[] above = depth == 0 ? null : possible[depth - 1];
+        int candidatesAbove = depth == 0 ? layoutCount : possibleCount[depth - 1];
+        int[] hitting = cellHits[depth];
+        Arrays.fill(hitting, 0, candidateCount, 0);
+        long open = 0;
+        long union = 0;
+        long everywhere = -1L;
+        long agreeing = 0;
+        int consistent = 0;
+        int cellsLeft = 0;
+        for (int i = 0; i < candidatesAbove; i++) {
+            int l = above == null ? i : above[i];
+            if (!agrees(l, shot, hit, sunk))
+                continue;
+            here[consistent++] = l;
+            long left = layouts[l] & ~shot;
+            open |= left;
+            union |= layouts[l];
+            everywhere &= left;
+            agreeing ^= RunSeeds.mix(l + 1);
+            cellsLeft += Long.bitCount(left);
+            for (long m = left; m != 0; m &= m - 1)
+                hitting[Long.numberOfTrailingZeros(m)]++;
+        }
+        possibleCount[depth] = consistent;
+        if (open == 0)
+            return 0;
+
+        // the value only depends on the layouts still possible and on which
+        // of their cells were shot
+        long key = shot & union;
+        int slot = find(key, agreeing);
+        if (slot >= 0 && tableStamp[slot] == stamp)
+            return tableValue[slot];
+
+        // every layout needs each of its cells shot, so no order beats the
+        // average of their counts; a cell of every layout must be shot
+        // anyway, and shooting it first only adds knowledge
+        double bound = (double) cellsLeft / consistent;
+        long moves = everywhere != 0 ? Long.lowestOneBit(everywhere) : open;
+
+        long[] sunkAfter = sinkings[depth];
+        int[] counts = sinkingCounts[depth];
+        double best = Double.MAX_VALUE;
+        int bestMove = -1;
+        while (moves != 0 && best > bound) {
+            // the likeliest hits first, to find good moves early
+            int move = -1;
+            for (long m = moves; m != 0; m &= m - 1) {
+                int cell = Long.numberOfTrailingZeros(m);
+                if (move < 0 || hitting[cell] > hitting[move])
+                    move = cell;
+            }
+            long bit = 1L << move;
+            moves &= ~bit;
+            // the shot costs one, and the cells left afterwards still need
+            // their shots; the moves left hit less often and can only do worse
+            if (1 + (double) (cellsLeft - hitting[move]) / consistent >= best)
+                break;
+
+            // group the layouts by what shooting the cell reveals
+            int outcomes = 0;
+            for (int i = 0; i < consistent; i++) {
+                int l = here[i];
+                if ((layouts[l] & bit) == 0)
+                    continue;
+                long after = sunkIn(l, hit | bit);
+                int o = 0;
+                while (o < outcomes && sunkAfter[o] != after)
+                    o++;
+                if (o == outcomes) {
+                    if (outcomes == MAX_SINKINGS) {
+                        aborted = true;
+                        return 0;
+                    }
+                    sunkAfter[outcomes] = after;
+                    counts[outcomes++] = 0;
+                }
+                counts[o]++;
+            }
+
+            // the terms are never negative, so a move stops as soon as it
+            // is no better than the best so far
+            int misses = consistent - hitting[move];
+            double value = 1;
+            if (misses > 0)
+                value += misses * expected(shot | bit, hit, sunk, depth + 1) / consistent;
+            for (int o = 0; o < outcomes && value < best; o++)
+                value += counts[o] * expected(shot | bit, hit | bit, sunkAfter[o], depth + 1) / consistent;
+            if (value < best) {
+                best = value;
+                bestMove = move;
+            }
+        }
+
+        if (depth == 0)
+            rootMove = bestMove;
+        // the search below may have taken the slot found before it
+        slot = find(key, agreeing);
+        if (!aborted && slot >= 0) {
+            tableShot[slot] = key;
+            tableLayouts[slot] = agreeing;
+            tableValue[slot] = best;
+            tableStamp[slot] = stamp;
+        }
+        return best;
+    }
+
+    /**
+     * @return the slot holding the state, or a free slot for it, or -1 if
+     * the probed slots are all taken by other states
+     */
+    private int find(long shot, long layouts) {
+        int slot = (int) RunSeeds.mix(shot ^ layouts) & tableMask;
+        for (int probe = 0; probe < PROBES; probe++) {
+            if (tableStamp[slot] != stamp || tableShot[slot] == shot && tableLayouts[slot] == layouts)
+                return slot;
+            slot = (slot + 1) & tableMask;
+        }
+        return -1;
+    }
+}
@@ -19,10 +19,54 @@ public class Fleet implements IFleet {
 
     // -----------------------------------------------------
 
+    // layout of the entries of cellIndex: ((ship << SEGMENT_BITS) | segment) + 1
+    private static final int SEGMENT_BITS = 8;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+    private BoardSpec spec;
+
     private List<IShip> ships;
 
+    // cells no new ship may cover: the ships and the ring of cells around them
+    private CellSet forbidden;
+
+    // for each board cell, the ship and segment found there (0 for water)
+    private CellMap cellIndex;
+
+    // ships that are not Ship instances: their own tooCloseTo has the last word
+    private int foreignShips;
+
+    // bounding boxes of the ships, to find the neighbours of a new ship
+    private ShipGrid grid;
+
+    // number of ships still floating, kept up to date by addShip and shoot
+    private int floatingCount;
+
     public Fleet() {
+        this(BoardSpec.DEFAULT);
+    }
+
+    /**
+     * @param spec the board the fleet is placed on
+     */
+    public Fleet(BoardSpec spec) {
+        this.spec = spec;
         ships = new ArrayList<>();
+        forbidden = spec.newCellSet();
+        cellIndex = spec.newCellMap();
+        grid = new ShipGrid(spec);
+        foreignShips = 0;
+        floatingCount = 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getSpec()
+     */
+    @Override
+    public BoardSpec getSpec() {
+        return spec;
     }
 
     @Override
@@ -38,8 +82,15 @@ public class Fleet implements IFleet {
     @Override
     public boolean addShip(IShip s) {
         boolean result = false;
-        if ((ships.size() <= FLEET_SIZE) && (isInsideBoard(s)) && (!colisionRisk(s))) {
+        if (canPlace(s)) {
             ships.add(s);
+            indexShip(ships.size() - 1, s);
+            grid.add(ships.size() - 1, s.getTopMostPos(), s.getBottomMostPos(), s.getLeftMostPos(),
+                    s.getRightMostPos());
+            if (!(s instanceof Ship))
+                foreignShips++;
+            if (s.stillFloating())
+                floatingCount++;
             result = true;
         }
         return result;
@@ -75,6 +126,16 @@ public class Fleet implements IFleet {
         return floatingShips;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#getFloatingCount()
+     */
+    @Override
+    public int getFloatingCount() {
+        return floatingCount;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -82,23 +143,120 @@ public class Fleet implements IFleet {
      */
     @Override
     public IShip shipAt(IPosition pos) {
+        if (spec.isInside(pos.getRow(), pos.getColumn())) {
+            int entry = cellIndex.get(pos.getRow(), pos.getColumn());
+            return entry == 0 ? null : ships.get((entry - 1) >>> SEGMENT_BITS);
+        }
+
         for (int i = 0; i < ships.size(); i++)
             if (ships.get(i).occupies(pos))
                 return ships.get(i);
         return null;
     }
 
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IFleet#shoot(battleship.IPosition)
+     */
+    @Override
+    public IShip shoot(IPosition pos) {
+        IShip s;
+        int segment = -1;
+        if (spec.isInside(pos.getRow(), pos.getColumn())) {
+            int entry = cellIndex.get(pos.getRow(), pos.getColumn());
+            if (entry == 0)
+                return null;
+            s = ships.get((entry - 1) >>> SEGMENT_BITS);
+            segment = (entry - 1) & SEGMENT_MASK;
+        } else {
+            s = shipAt(pos);
+            if (s == null)
+                return null;
+        }
+
+        boolean wasFloating = s.stillFloating();
+        if (segment >= 0)
+            s.shootSegment(segment);
+        else
+            s.shoot(pos);
+        if (wasFloating && !s.stillFloating())
+            floatingCount--;
+        return s;
+    }
+
+    /**
+     * Records the cells of a newly added ship in the cell index and in the
+     * forbidden cells
+     *
+     * @param id the index of the ship in the fleet
+     * @param s  the ship
+     */
+    private void indexShip(int id, IShip s) {
+        List<IPosition> positions = s.getPositions();
+        assert positions.size() <= SEGMENT_MASK + 1;
+
+        for (int segment = 0; segment < positions.size(); segment++) {
+            IPosition p = positions.get(segment);
+            if (spec.isInside(p.getRow(), p.getColumn()) && cellIndex.get(p.getRow(), p.getColumn()) == 0)
+                cellIndex.put(p.getRow(), p.getColumn(), ((id << SEGMENT_BITS) | segment) + 1);
+            for (int r = p.getRow() - 1; r <= p.getRow() + 1; r++)
+                for (int c = p.getColumn() - 1; c <= p.getColumn() + 1; c++)
+                    forbidden.set(r, c);
+        }
+    }
+
     private boolean isInsideBoard(IShip s) {
-        return (s.getLeftMostPos() >= 0 && s.getRightMostPos() <= BOARD_SIZE - 1 && s.getTopMostPos() >= 0
-                && s.getBottomMostPos() <= BOARD_SIZE - 1);
+        return (s.getLeftMostPos() >= 0 && s.getRightMostPos() <= spec.getColumns() - 1 && s.getTopMostPos() >= 0
+                && s.getBottomMostPos() <= spec.getRows() - 1);
+    }
+
+    /**
+     * @return true if the ship could be added to this fleet: there is room
+     * for one more ship, it lies on the board and it touches no other ship
+     */
+    public boolean canPlace(IShip s) {
+        return (ships.size() < spec.getFleetSize()) && (isInsideBoard(s)) && (!colisionRisk(s));
+    }
+
+    /**
+     * Checks whether a ship of the given shape could be added with its origin
+     * at the given cell, without building the ship
+     *
+     * @return true if the ship would lie on the board and touch no other ship
+     */
+    public boolean canPlace(ShipShape shape, int row, int column) {
+        if (foreignShips != 0)
+            return canPlace(shape.getKind().build(shape.getBearing(), Cell.of(row, column)));
+
+        if (ships.size() >= spec.getFleetSize() || !spec.isInside(row + shape.getTop(), column + shape.getLeft())
+                || !spec.isInside(row + shape.getBottom(), column + shape.getRight()))
+            return false;
+        for (int i = 0; i < shape.size(); i++)
+            if (forbidden.get(row + shape.getRowOffset(i), column + shape.getColumnOffset(i)))
+                return false;
+        return true;
+    }
+
+    /**
+     * @return true if a new ship may cover the given cell, i.e. the cell is on
+     * the board and neither holds nor touches a ship of this fleet
+     */
+    public boolean isFree(int row, int column) {
+        return spec.isInside(row, column) && !forbidden.get(row, column);
     }
 
     private boolean colisionRisk(IShip s) {
-        for (int i = 0; i < ships.size(); i++) {
-            if (ships.get(i).tooCloseTo(s))
-                return true;
+        // only reached by ships inside the board, see canPlace
+        if (foreignShips == 0) {
+            for (IPosition p : s.getPositions())
+                if (forbidden.get(p.getRow(), p.getColumn()))
+                    return true;
+            return false;
         }
-        return false;
+
+        return grid.anyNear(s.getTopMostPos() - 1, s.getBottomMostPos() + 1, s.getLeftMostPos() - 1,
+                s.getRightMostPos() + 1, i -> ships.get(i).tooCloseTo(s));
     }
 
 
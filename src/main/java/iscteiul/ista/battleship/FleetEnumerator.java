@@ -0,0 +1,304 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Visits every legal fleet of a board, the same fleets counted by
+ * {@link UniformFleetSampler}. The work is split by the placement of the
+ * first (largest) ship, one fork/join task each, and every task walks its
+ * fleets depth first over bitboard masks without allocating.
+ * <p>
+ * Fleets can be written to a stream: a header with the board and the fleet
+ * composition, then one record per fleet holding the placement number of
+ * each ship, largest first, in as few bytes as the number of placements
+ * needs. Tasks write whole blocks of records, so the order of the fleets in
+ * the stream varies from run to run. The record of the only fleet of an
+ * empty composition is empty.
+ */
+public class FleetEnumerator {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int MAGIC = 0x46_4C_54_31; // "FLT1"
+    // bytes of records buffered by a task before writing them out
+    private static final int BLOCK = 1 << 16;
+    // least interval between progress reports
+    private static final long REPORT_NANOS = 1_000_000_000L;
+
+    private final BoardSpec spec;
+    private final Placements placements;
+    private final ShipKind[] order;
+    private final ForkJoinPool pool;
+    private final int recordBytes;
+
+    private final AtomicLong fleets = new AtomicLong();
+    private final AtomicLong partitionsDone = new AtomicLong();
+    private final AtomicLong lastReport = new AtomicLong();
+    private int partitions;
+    private long started;
+
+    /**
+     * @param spec the board and the fleet composition
+     */
+    public FleetEnumerator(BoardSpec spec) {
+        this(spec, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param spec the board and the fleet composition
+     * @param pool the pool running the enumeration
+     */
+    public FleetEnumerator(BoardSpec spec, ForkJoinPool pool) {
+        this.spec = spec;
+        this.placements = new Placements(spec);
+        this.order = spec.largestFirst();
+        this.pool = pool;
+        this.recordBytes = bytesFor(placements.size());
+    }
+
+    private static int bytesFor(int placements) {
+        int bytes = 1;
+        while (bytes < 4 && placements > 1 << (8 * bytes))
+            bytes++;
+        return bytes;
+    }
+
+    /**
+     * @return the number of legal fleets of the board
+     */
+    public long count() {
+        return run(null);
+    }
+
+    /**
+     * Writes every legal fleet of the board to the stream, which is left
+     * open.
+     *
+     * @return the number of fleets written
+     * @throws UncheckedIOException if the stream fails
+     */
+    public long write(OutputStream out) {
+        DataOutputStream data = new DataOutputStream(out);
+        try {
+            data.writeInt(MAGIC);
+            data.writeInt(spec.getRows());
+            data.writeInt(spec.getColumns());
+            for (ShipKind kind : ShipKind.values())
+                data.writeInt(spec.getCount(kind));
+            long written = run(data);
+            data.flush();
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized long run(DataOutputStream out) {
+        fleets.set(0);
+        partitionsDone.set(0);
+        started = System.nanoTime();
+        lastReport.set(started);
+
+        if (order.length == 0) {
+            fleets.set(1);
+        } else {
+            List<Partition> tasks = new ArrayList<>();
+            for (int p = placements.first(order[0]); p < placements.end(order[0]); p++)
+                tasks.add(new Partition(p, out));
+            partitions = tasks.size();
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        long nanos = Math.max(1, System.nanoTime() - started);
+        LOGGER.info("{} frotas enumeradas num tabuleiro {} em {} ms ({} frotas/s)", fleets.get(), spec,
+                nanos / 1_000_000, rate(fleets.get(), nanos));
+        return fleets.get();
+    }
+
+    /**
+     * @return the fleets found so far by the running or last enumeration
+     */
+    public long getFleetsEnumerated() {
+        return fleets.get();
+    }
+
+    /**
+     * @return the partitions, placements of the first ship, already walked
+     */
+    public long getPartitionsDone() {
+        return partitionsDone.get();
+    }
+
+    /**
+     * @return the partitions of the running or last enumeration
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    private void reportProgress() {
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        if (now - last >= REPORT_NANOS && lastReport.compareAndSet(last, now)) {
+            long found = fleets.get();
+            LOGGER.info("{}/{} partições, {} frotas ({} frotas/s)", partitionsDone.get(), partitions, found,
+                    rate(found, now - started));
+        }
+    }
+
+    /**
+     * @return the fleets found per second, in floating point since counts
+     * times a billion overflow a long
+     */
+    static long rate(long fleets, long nanos) {
+        return (long) (fleets / (Math.max(1, nanos) / 1e9));
+    }
+
+    /**
+     * Reads back a stream written by {@link #write(OutputStream)}.
+     *
+     * @param in    the stream, left open
+     * @param fleet receives every fleet of the stream
+     * @return the number of fleets read
+     * @throws IOException if the stream fails or was not written by an
+     *                     enumerator
+     */
+    public static long read(InputStream in, Consumer<Fleet> fleet) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC)
+            throw new IOException("ERROR! not a fleet enumeration");
+        int rows = data.readInt();
+        int columns = data.readInt();
+        Map<ShipKind, Integer> composition = new EnumMap<>(ShipKind.class);
+        for (ShipKind kind : ShipKind.values())
+            composition.put(kind, data.readInt());
+        BoardSpec spec = new BoardSpec(rows, columns, composition);
+        Placements placements = new Placements(spec);
+        int size = spec.getFleetSize();
+        int bytes = bytesFor(placements.size());
+        if (size == 0) {
+            fleet.accept(new Fleet(spec));
+            return 1;
+        }
+
+        long read = 0;
+        while (true) {
+            int first = data.read();
+            if (first < 0)
+                return read;
+            Fleet f = new Fleet(spec);
+            for (int i = 0; i < size; i++) {
+                int p = i == 0 ? first : data.readUnsignedByte();
+                for (int b = 1; b < bytes; b++)
+                    p = p << 8 | data.readUnsignedByte();
+                if (p >= placements.size() || !f.addShip(placements.build(p)))
+                    throw new IOException("ERROR! fleet " + read + " is not legal on a " + spec + " board");
+            }
+            fleet.accept(f);
+            read++;
+        }
+    }
+
+    /**
+     * The fleets whose first ship has a given placement
+     */
+    private class Partition extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int firstPlacement;
+        private final DataOutputStream out;
+
+        // the forbidden cells before placing the ship at each depth
+        private long[][] forbidden;
+        private int[] chosen;
+        private byte[] block;
+        private int blockSize;
+        private long found;
+
+        Partition(int firstPlacement, DataOutputStream out) {
+            this.firstPlacement = firstPlacement;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            forbidden = new long[order.length + 1][placements.words()];
+            chosen = new int[order.length];
+            block = out == null ? null : new byte[BLOCK - BLOCK % (recordBytes * order.length)];
+
+            chosen[0] = firstPlacement;
+            placements.addHalo(firstPlacement, forbidden[1]);
+            walk(1);
+
+            flush();
+            fleets.addAndGet(found);
+            partitionsDone.incrementAndGet();
+            reportProgress();
+        }
+
+        private void walk(int depth) {
+            if (depth == order.length) {
+                record();
+                return;
+            }
+            long[] mask = forbidden[depth];
+            long[] next = forbidden[depth + 1];
+            int start = order[depth] == order[depth - 1] ? chosen[depth - 1] + 1 : placements.first(order[depth]);
+            for (int p = start; p < placements.end(order[depth]); p++)
+                if (placements.fits(p, mask)) {
+                    chosen[depth] = p;
+                    System.arraycopy(mask, 0, next, 0, mask.length);
+                    placements.addHalo(p, next);
+                    walk(depth + 1);
+                }
+        }
+
+        private void record() {
+            found++;
+            if (block == null)
+                return;
+            if (blockSize == block.length)
+                flush();
+            for (int p : chosen)
+                for (int b = recordBytes - 1; b >= 0; b--)
+                    block[blockSize++] = (byte) (p >>> (8 * b));
+        }
+
+        private void flush() {
+            if (block == null || blockSize == 0)
+                return;
+            try {
+                synchronized (out) {
+                    out.write(block, 0, blockSize);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            blockSize = 0;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Builds random legal fleets for a board. Ships are placed largest first at
+ * random origins and bearings; when a ship finds no room the previous ship
+ * is moved, and a fleet that keeps getting stuck is started over.
+ */
+public class FleetGenerator {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // random placements tried for a ship before moving the previous one
+    private static final int ATTEMPTS = 64;
+    // ships moved before starting the fleet over
+    private static final int MAX_BACKTRACKS = 256;
+    // fleets started over before giving up
+    private static final int MAX_RESTARTS = 1_000;
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    private final BoardSpec spec;
+    // the source of generate(), or null if every fleet brings its own
+    private final RandomGenerator random;
+
+    // the ships to place, largest first
+    private final ShipKind[] order;
+
+    // the placement chosen for each ship of order
+    private final ShipShape[] shapes;
+    private final int[] rows;
+    private final int[] columns;
+
+    // per cell, how many placed ships cover it or touch it
+    private final CellMap halo;
+
+    private long fleets;
+    private long nanos;
+
+    /**
+     * A generator without a source of its own, for
+     * {@link #generate(RandomGenerator)} only
+     *
+     * @param spec the board and the fleet composition
+     */
+    public FleetGenerator(BoardSpec spec) {
+        this(spec, (RandomGenerator) null);
+    }
+
+    /**
+     * @param spec the board and the fleet composition
+     * @param seed seed of the random placements
+     */
+    public FleetGenerator(BoardSpec spec, long seed) {
+        this(spec, new Random(seed));
+    }
+
+    /**
+     * @param spec   the board and the fleet composition
+     * @param random source of the random placements
+     */
+    public FleetGenerator(BoardSpec spec, RandomGenerator random) {
+        this.spec = spec;
+        this.random = random;
+
+        this.order = spec.largestFirst();
+
+        this.shapes = new ShipShape[order.length];
+        this.rows = new int[order.length];
+        this.columns = new int[order.length];
+        this.halo = spec.newCellMap();
+    }
+
+    /**
+     * @return a new random fleet, complete and legal for the board
+     * @throws IllegalStateException if no legal fleet could be found or the
+     *                               generator has no source of its own
+     */
+    public Fleet generate() {
+        if (random == null)
+            throw new IllegalStateException("ERROR! fleet generator without a source of randomness");
+        return generate(random);
+    }
+
+    /**
+     * @param random source of the random placements of this fleet only
+     * @return a new random fleet, complete and legal for the board
+     * @throws IllegalStateException if no legal fleet could be found
+     */
+    public Fleet generate(RandomGenerator random) {
+        long start = System.nanoTime();
+
+        for (int restart = 0; restart < MAX_RESTARTS; restart++) {
+            if (placeAll(random)) {
+                Fleet fleet = new Fleet(spec);
+                for (int i = 0; i < order.length; i++) {
+                    boolean added = fleet.addShip(order[i].build(shapes[i].getBearing(), Cell.of(rows[i], columns[i])));
+                    assert added;
+                }
+                clear(order.length);
+
+                fleets++;
+                nanos += System.nanoTime() - start;
+                return fleet;
+            }
+        }
+
+        nanos += System.nanoTime() - start;
+        throw new IllegalStateException("ERROR! no room for the fleet on a " + spec + " board");
+    }
+
+    /**
+     * Places every ship of the fleet, moving earlier ships when a later one
+     * does not fit
+     *
+     * @return false if the fleet got stuck too often; the board is then clear
+     */
+    private boolean placeAll(RandomGenerator random) {
+        int depth = 0;
+        int backtracks = 0;
+        while (depth < order.length) {
+            if (placeRandomly(depth, random)) {
+                depth++;
+            } else {
+                if (depth == 0 || ++backtracks > MAX_BACKTRACKS) {
+                    clear(depth);
+                    return false;
+                }
+                depth--;
+                mark(depth, -1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tries random placements for the ship at the given depth
+     *
+     * @return true if the ship was placed
+     */
+    private boolean placeRandomly(int depth, RandomGenerator random) {
+        ShipKind kind = order[depth];
+        for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+            ShipShape shape = kind.shape(BEARINGS[random.nextInt(BEARINGS.length)]);
+            int rowSpan = spec.getRows() - (shape.getBottom() - shape.getTop());
+            int columnSpan = spec.getColumns() - (shape.getRight() - shape.getLeft());
+            if (rowSpan <= 0 || columnSpan <= 0)
+                continue;
+
+            int row = random.nextInt(rowSpan) - shape.getTop();
+            int column = random.nextInt(columnSpan) - shape.getLeft();
+            if (fits(shape, row, column)) {
+                shapes[depth] = shape;
+                rows[depth] = row;
+                columns[depth] = column;
+                mark(depth, 1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean fits(ShipShape shape, int row, int column) {
+        for (int i = 0; i < shape.size(); i++)
+            if (halo.get(row + shape.getRowOffset(i), column + shape.getColumnOffset(i)) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Adds delta to the halo count of every cell covered or touched by the
+     * ship at the given depth
+     */
+    private void mark(int depth, int delta) {
+        ShipShape shape = shapes[depth];
+        for (int i = 0; i < shape.size(); i++) {
+            int row = rows[depth] + shape.getRowOffset(i);
+            int column = columns[depth] + shape.getColumnOffset(i);
+            for (int r = row - 1; r <= row + 1; r++)
+                for (int c = column - 1; c <= column + 1; c++)
+                    halo.put(r, c, halo.get(r, c) + delta);
+        }
+    }
+
+    /**
+     * Removes the first depth ships from the board
+     */
+    private void clear(int depth) {
+        for (int i = depth - 1; i >= 0; i--)
+            mark(i, -1);
+    }
+
+    /**
+     * @return the number of fleets generated so far
+     */
+    public long getFleetsGenerated() {
+        return fleets;
+    }
+
+    /**
+     * @return the average number of fleets generated per second so far
+     */
+    public double getFleetsPerSecond() {
+        return nanos == 0 ? 0 : fleets * 1e9 / nanos;
+    }
+
+    /**
+     * Logs how many fleets were generated and at what rate
+     */
+    public void logThroughput() {
+        LOGGER.info("{} frotas geradas em {} ms ({} frotas/s)", fleets, nanos / 1_000_000,
+                String.format("%.0f", getFleetsPerSecond()));
+    }
+}
@@ -12,21 +12,14 @@ public class Frigate extends Ship {
      * @param pos
      */
     public Frigate(Compass bearing, IPosition pos) throws IllegalArgumentException {
-        super(Frigate.NAME, bearing, pos);
-        switch (bearing) {
-            case NORTH:
-            case SOUTH:
-                for (int r = 0; r < SIZE; r++)
-                    getPositions().add(new Position(pos.getRow() + r, pos.getColumn()));
-                break;
-            case EAST:
-            case WEST:
-                for (int c = 0; c < SIZE; c++)
-                    getPositions().add(new Position(pos.getRow(), pos.getColumn() + c));
-                break;
-            default:
-                throw new IllegalArgumentException("ERROR! invalid bearing for thr frigate");
-        }
+        super(Frigate.NAME, pos, shapeFor(bearing));
+    }
+
+    private static ShipShape shapeFor(Compass bearing) {
+        ShipShape shape = ShipShape.of(ShipKind.FRIGATE, bearing);
+        if (shape == null)
+            throw new IllegalArgumentException("ERROR! invalid bearing for thr frigate");
+        return shape;
     }
 
     /*
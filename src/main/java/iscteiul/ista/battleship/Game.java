@@ -12,21 +12,25 @@ import java.util.List;
  */
 public class Game implements IGame {
     private IFleet fleet;
-    private List<IPosition> shots;
+    private ShotLedger shots;
 
-    private Integer countInvalidShots;
-    private Integer countRepeatedShots;
-    private Integer countHits;
-    private Integer countSinks;
+    private int countInvalidShots;
+    private int countRepeatedShots;
+    private int countHits;
+    private int countSinks;
 
+    // Zobrist hash of the cells shot, hit and sunk
+    private long knowledgeHash;
 
     /**
      * @param fleet
      */
     public Game(IFleet fleet) {
-        shots = new ArrayList<>();
+        shots = new ShotLedger(fleet.getSpec());
         countInvalidShots = 0;
         countRepeatedShots = 0;
+        countHits = 0;
+        countSinks = 0;
         this.fleet = fleet;
     }
 
@@ -40,16 +44,17 @@ public class Game implements IGame {
         if (!validShot(pos))
             countInvalidShots++;
         else { // valid shot!
-            if (repeatedShot(pos))
+            if (!shots.add(pos.getRow(), pos.getColumn()))
                 countRepeatedShots++;
             else {
-                shots.add(pos);
-                IShip s = fleet.shipAt(pos);
+                IShip s = fleet.shoot(pos);
+                long cell = (long) pos.getRow() * fleet.getSpec().getColumns() + pos.getColumn();
+                knowledgeHash = Zobrist.shot(knowledgeHash, cell, s != null);
                 if (s != null) {
-                    s.shoot(pos);
                     countHits++;
                     if (!s.stillFloating()) {
                         countSinks++;
+                        knowledgeHash = Zobrist.sink(knowledgeHash, fleet.getSpec(), s);
                         return s;
                     }
                 }
@@ -65,7 +70,7 @@ public class Game implements IGame {
      */
     @Override
     public List<IPosition> getShots() {
-        return shots;
+        return shots.asList();
     }
 
     /*
@@ -115,35 +120,47 @@ public class Game implements IGame {
      */
     @Override
     public int getRemainingShips() {
-        List<IShip> floatingShips = fleet.getFloatingShips();
-        return floatingShips.size();
+        return fleet.getFloatingCount();
     }
 
-    private boolean validShot(IPosition pos) {
-        return (pos.getRow() >= 0 && pos.getRow() <= Fleet.BOARD_SIZE && pos.getColumn() >= 0
-                && pos.getColumn() <= Fleet.BOARD_SIZE);
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#getKnowledgeHash()
+     */
+    @Override
+    public long getKnowledgeHash() {
+        return knowledgeHash;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IGame#isOver()
+     */
+    @Override
+    public boolean isOver() {
+        return fleet.getFloatingCount() == 0;
     }
 
-    private boolean repeatedShot(IPosition pos) {
-        for (int i = 0; i < shots.size(); i++)
-            if (shots.get(i).equals(pos))
-                return true;
-        return false;
+    private boolean validShot(IPosition pos) {
+        return fleet.getSpec().isInside(pos.getRow(), pos.getColumn());
     }
 
 
     public void printBoard(List<IPosition> positions, Character marker) {
-        char[][] map = new char[Fleet.BOARD_SIZE][Fleet.BOARD_SIZE];
+        BoardSpec spec = fleet.getSpec();
+        char[][] map = new char[spec.getRows()][spec.getColumns()];
 
-        for (int r = 0; r < Fleet.BOARD_SIZE; r++)
-            for (int c = 0; c < Fleet.BOARD_SIZE; c++)
+        for (int r = 0; r < spec.getRows(); r++)
+            for (int c = 0; c < spec.getColumns(); c++)
                 map[r][c] = '.';
 
         for (IPosition pos : positions)
             map[pos.getRow()][pos.getColumn()] = marker;
 
-        for (int row = 0; row < Fleet.BOARD_SIZE; row++) {
-            for (int col = 0; col < Fleet.BOARD_SIZE; col++)
+        for (int row = 0; row < spec.getRows(); row++) {
+            for (int col = 0; col < spec.getColumns(); col++)
                 System.out.print(map[row][col]);
             System.out.println();
         }
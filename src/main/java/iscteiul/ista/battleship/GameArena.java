@@ -0,0 +1,216 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * Many games on the same board, stored as flat primitive arrays indexed by
+ * game number instead of one object graph per game. For each game the arena
+ * keeps which ship covers each cell, the cells shot, how many cells of each
+ * ship are still unhit and the counters of {@link Game}. A game of the
+ * default board fits in under 200 bytes, laid out contiguously within each
+ * array.
+ * <p>
+ * {@link #fire(int, int, int)} follows {@link Game#fire(IPosition)}: shots off
+ * the board count as invalid, shots at a cell already shot count as
+ * repeated, and only the shot that sinks a ship reports it.
+ */
+public class GameArena {
+    /**
+     * Returned by {@link #fire(int, int, int)} when no ship was sunk
+     */
+    public static final int NONE = -1;
+
+    private final BoardSpec spec;
+    private final int capacity;
+    private final int cells;
+    private final int words;
+    private final int fleetSize;
+
+    // per game and cell, 1 + the number of the ship covering it, or 0, unsigned
+    private final byte[] board;
+    // per game, the cells shot
+    private final long[] shot;
+    // per game and ship, the ship's kind and its cells not hit yet
+    private final byte[] kind;
+    private final byte[] unhit;
+
+    private final int[] floating;
+    private final int[] shots;
+    private final int[] hits;
+    private final int[] sinks;
+    private final int[] invalid;
+    private final int[] repeated;
+
+    /**
+     * @param spec     the board of every game; at most 4096 cells and 255
+     *                 ships
+     * @param capacity the number of games held
+     */
+    public GameArena(BoardSpec spec, int capacity) {
+        if ((long) spec.getRows() * spec.getColumns() > Placements.MAX_CELLS || spec.getFleetSize() > 255)
+            throw new IllegalArgumentException("ERROR! board " + spec + " is too large for an arena");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("ERROR! an arena must hold some game");
+
+        this.spec = spec;
+        this.capacity = capacity;
+        this.cells = spec.getRows() * spec.getColumns();
+        this.words = (cells + 63) >>> 6;
+        this.fleetSize = spec.getFleetSize();
+
+        this.board = new byte[Math.multiplyExact(capacity, cells)];
+        this.shot = new long[Math.multiplyExact(capacity, words)];
+        this.kind = new byte[Math.multiplyExact(capacity, fleetSize)];
+        this.unhit = new byte[Math.multiplyExact(capacity, fleetSize)];
+        this.floating = new int[capacity];
+        this.shots = new int[capacity];
+        this.hits = new int[capacity];
+        this.sinks = new int[capacity];
+        this.invalid = new int[capacity];
+        this.repeated = new int[capacity];
+    }
+
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @return the number of games held
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Starts a new game in the given slot, against a copy of the fleet
+     *
+     * @throws IllegalArgumentException if the fleet is not on the arena's
+     *                                  board, has too many ships or has
+     *                                  ships sharing a cell
+     */
+    public void load(int game, IFleet fleet) {
+        if (fleet.getShips().size() > fleetSize)
+            throw new IllegalArgumentException("ERROR! fleet larger than " + fleetSize + " ships");
+        clear(game);
+
+        int ships = fleet.getShips().size();
+        floating[game] = 0;
+        for (int s = 0; s < ships; s++) {
+            IShip ship = fleet.getShips().get(s);
+            ShipKind k = ShipKind.ofCategory(ship.getCategory());
+            kind[game * fleetSize + s] = (byte) (k == null ? -1 : k.ordinal());
+            int size = 0;
+            for (IPosition pos : ship.getPositions()) {
+                if (!spec.isInside(pos.getRow(), pos.getColumn()))
+                    throw new IllegalArgumentException("ERROR! ship " + ship + " is off the board");
+                int cell = game * cells + pos.getRow() * spec.getColumns() + pos.getColumn();
+                if (board[cell] != 0)
+                    throw new IllegalArgumentException("ERROR! ships sharing cell " + pos);
+                board[cell] = (byte) (s + 1);
+                size++;
+            }
+            unhit[game * fleetSize + s] = (byte) size;
+            if (size > 0)
+                floating[game]++;
+        }
+    }
+
+    /**
+     * Empties the given slot: no ships, no shots
+     */
+    public void clear(int game) {
+        Arrays.fill(board, game * cells, (game + 1) * cells, (byte) 0);
+        Arrays.fill(shot, game * words, (game + 1) * words, 0L);
+        Arrays.fill(kind, game * fleetSize, (game + 1) * fleetSize, (byte) -1);
+        Arrays.fill(unhit, game * fleetSize, (game + 1) * fleetSize, (byte) 0);
+        floating[game] = 0;
+        shots[game] = 0;
+        hits[game] = 0;
+        sinks[game] = 0;
+        invalid[game] = 0;
+        repeated[game] = 0;
+    }
+
+    /**
+     * Fires a shot in the given game
+     *
+     * @return the number of the ship sunk by this shot, in the order of the
+     * fleet loaded, or {@link #NONE}
+     */
+    public int fire(int game, int row, int column) {
+        shots[game]++;
+        if (!spec.isInside(row, column)) {
+            invalid[game]++;
+            return NONE;
+        }
+        int cell = row * spec.getColumns() + column;
+        int word = game * words + (cell >>> 6);
+        long bit = 1L << cell;
+        if ((shot[word] & bit) != 0) {
+            repeated[game]++;
+            return NONE;
+        }
+        shot[word] |= bit;
+
+        int ship = (board[game * cells + cell] & 0xFF) - 1;
+        if (ship < 0)
+            return NONE;
+        hits[game]++;
+        if (--unhit[game * fleetSize + ship] != 0)
+            return NONE;
+        sinks[game]++;
+        floating[game]--;
+        return ship;
+    }
+
+    /**
+     * @return true if the cell was shot in the given game
+     */
+    public boolean isShot(int game, int row, int column) {
+        int cell = row * spec.getColumns() + column;
+        return (shot[game * words + (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return the kind of the given ship of the given game, or null if it is
+     * not one of the standard kinds
+     */
+    public ShipKind getKind(int game, int ship) {
+        int k = kind[game * fleetSize + ship];
+        return k < 0 ? null : ShipKind.values()[k];
+    }
+
+    /**
+     * @return the number of shots fired in the game, valid or not
+     */
+    public int getShots(int game) {
+        return shots[game];
+    }
+
+    public int getHits(int game) {
+        return hits[game];
+    }
+
+    public int getSunkShips(int game) {
+        return sinks[game];
+    }
+
+    public int getRemainingShips(int game) {
+        return floating[game];
+    }
+
+    public int getInvalidShots(int game) {
+        return invalid[game];
+    }
+
+    public int getRepeatedShots(int game) {
+        return repeated[game];
+    }
+
+    public boolean isOver(int game) {
+        return floating[game] == 0;
+    }
+}
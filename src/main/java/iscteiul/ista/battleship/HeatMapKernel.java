@@ -0,0 +1,111 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Counts, for every cell of the board, the placements of the ships afloat
+ * that cover it and avoid the blocked cells (misses, sunk ships and the
+ * cells touching them). Each distinct shape of each kind is slid over every
+ * origin, so a caravel heading north and one heading south, which cover the
+ * same cells, are counted once, as in {@link Placements}.
+ * <p>
+ * {@link #create(BoardSpec)} picks the kernel built on the JDK Vector API
+ * when the {@code jdk.incubator.vector} module is present, and the scalar
+ * one otherwise; both give the same counts.
+ */
+public abstract class HeatMapKernel {
+    private static final String VECTOR_KERNEL = "iscteiul.ista.battleship.VectorHeatMapKernel";
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    protected final int rows;
+    protected final int columns;
+
+    // the distinct shapes of all kinds, offsets moved so their least row and column are 0
+    protected final int[] shapeKind;
+    protected final int[] shapeHeight;
+    protected final int[] shapeWidth;
+    protected final int[][] shapeRows;
+    protected final int[][] shapeColumns;
+
+    /**
+     * @param spec the board; its area must not exceed
+     *             {@link Placements#MAX_CELLS}
+     */
+    protected HeatMapKernel(BoardSpec spec) {
+        if ((long) spec.getRows() * spec.getColumns() > Placements.MAX_CELLS)
+            throw new IllegalArgumentException("ERROR! board " + spec + " is too large for a heat map");
+        this.rows = spec.getRows();
+        this.columns = spec.getColumns();
+
+        List<ShipShape> shapes = new ArrayList<>();
+        for (ShipKind kind : ShipKind.values()) {
+            Set<String> seen = new HashSet<>();
+            for (Compass bearing : BEARINGS) {
+                ShipShape shape = kind.shape(bearing);
+                int[] cells = new int[shape.size()];
+                for (int i = 0; i < cells.length; i++)
+                    cells[i] = (shape.getRowOffset(i) - shape.getTop()) * 8 + shape.getColumnOffset(i) - shape.getLeft();
+                Arrays.sort(cells);
+                if (seen.add(Arrays.toString(cells)))
+                    shapes.add(shape);
+            }
+        }
+
+        int n = shapes.size();
+        shapeKind = new int[n];
+        shapeHeight = new int[n];
+        shapeWidth = new int[n];
+        shapeRows = new int[n][];
+        shapeColumns = new int[n][];
+        for (int s = 0; s < n; s++) {
+            ShipShape shape = shapes.get(s);
+            shapeKind[s] = shape.getKind().ordinal();
+            shapeHeight[s] = shape.getBottom() - shape.getTop() + 1;
+            shapeWidth[s] = shape.getRight() - shape.getLeft() + 1;
+            shapeRows[s] = new int[shape.size()];
+            shapeColumns[s] = new int[shape.size()];
+            for (int i = 0; i < shape.size(); i++) {
+                shapeRows[s][i] = shape.getRowOffset(i) - shape.getTop();
+                shapeColumns[s][i] = shape.getColumnOffset(i) - shape.getLeft();
+            }
+        }
+    }
+
+    /**
+     * @return the vector kernel for the board if the Vector API is available,
+     * the scalar kernel otherwise
+     */
+    public static HeatMapKernel create(BoardSpec spec) {
+        if (isVectorAvailable())
+            try {
+                return (HeatMapKernel) Class.forName(VECTOR_KERNEL).getConstructor(BoardSpec.class).newInstance(spec);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall back to the scalar kernel
+            }
+        return new ScalarHeatMapKernel(spec);
+    }
+
+    /**
+     * @return true if the jdk.incubator.vector module was added to this JVM
+     */
+    public static boolean isVectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * @param blocked the cells no ship can cover, one bit per cell numbered
+     *                row * columns + column
+     * @param weights per kind ordinal, the weight of each placement of the
+     *                kind, such as the number of ships of the kind afloat
+     * @param heat    receives, per cell, the sum of the weights of the
+     *                placements covering it
+     */
+    public abstract void compute(long[] blocked, int[] weights, int[] heat);
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Counts how often each small non-negative integer was recorded. Values
+ * above the largest tracked one are counted in the last bucket, so the
+ * memory used does not grow with the number of values. Histograms of the
+ * same size can be merged, which lets parallel workers keep their own and
+ * add them up at the end.
+ */
+public class Histogram {
+    private final long[] counts;
+    private long count;
+    private long sum;
+    private int max;
+
+    /**
+     * @param maxValue the largest value counted exactly
+     */
+    public Histogram(int maxValue) {
+        if (maxValue < 0)
+            throw new IllegalArgumentException("ERROR! negative histogram size");
+        this.counts = new long[maxValue + 1];
+        this.max = -1;
+    }
+
+    /**
+     * @param value a non-negative value
+     */
+    public void record(int value) {
+        assert value >= 0;
+        counts[Math.min(value, counts.length - 1)]++;
+        count++;
+        sum += value;
+        if (value > max)
+            max = value;
+    }
+
+    /**
+     * Adds to this histogram the values recorded in the other
+     */
+    public void merge(Histogram other) {
+        if (other.counts.length != counts.length)
+            throw new IllegalArgumentException("ERROR! histograms of different sizes");
+        for (int v = 0; v < counts.length; v++)
+            counts[v] += other.counts[v];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of times the value was recorded
+     */
+    public long getCount(int value) {
+        return value < counts.length ? counts[value] : 0;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @return the largest value recorded, or -1 if none was
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @param fraction between 0 and 1, such as 0.99
+     * @return the smallest value not exceeded by that fraction of the values
+     * recorded, or -1 if none was
+     */
+    public int percentile(double fraction) {
+        if (count == 0)
+            return -1;
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int v = 0; v < counts.length; v++) {
+            seen += counts[v];
+            if (seen >= rank)
+                return v == counts.length - 1 ? max : v;
+        }
+        return max;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return String.format("n=%d media=%.2f p50=%d p90=%d p99=%d max=%d", count, getMean(), percentile(0.5),
+                percentile(0.9), percentile(0.99), max);
+    }
+}
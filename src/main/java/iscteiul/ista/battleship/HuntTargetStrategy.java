@@ -0,0 +1,135 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A cheap baseline player. While no ship is wounded it hunts, shooting the
+ * cells of a checkerboard whose spacing is the size of the smallest ship
+ * afloat, so that no straight ship can hide between its shots; given a
+ * source of randomness, which of the checkerboards is drawn per game. Once
+ * a ship is hit it targets the cells next to the hits, preferring those that
+ * extend a line of hits, until the ship sinks.
+ */
+public class HuntTargetStrategy extends TrackingStrategy {
+    private static final int[] ROW_STEP = {-1, 1, 0, 0};
+    private static final int[] COLUMN_STEP = {0, 0, -1, 1};
+    // a multiple of every ship size, so phase % size is uniform for each
+    private static final int PHASES = 60;
+    private static final ShipKind[] KINDS = ShipKind.values();
+
+    // parity[s][k]: the cells whose row + column leaves remainder k when divided by s
+    private final long[][][] parity;
+    private int phase;
+
+    /**
+     * @param spec the board and the fleet composition to play against
+     */
+    public HuntTargetStrategy(BoardSpec spec) {
+        super(spec);
+        int largest = ShipKind.GALLEON.getSize();
+        this.parity = new long[largest + 1][][];
+        for (int s = 1; s <= largest; s++) {
+            parity[s] = new long[s][shot.length];
+            for (int cell = 0; cell < cells; cell++)
+                set(parity[s][(cell / spec.getColumns() + cell % spec.getColumns()) % s], cell);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.TrackingStrategy#reset(java.util.random.RandomGenerator)
+     */
+    @Override
+    public void reset(RandomGenerator random) {
+        super.reset(random);
+        phase = random == null ? 0 : random.nextInt(PHASES);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#nextShot()
+     */
+    @Override
+    public IPosition nextShot() {
+        int cell = target();
+        if (cell < 0) {
+            int size = smallestAfloat();
+            cell = hunt(parity[size][phase % size]);
+        }
+        if (cell < 0)
+            cell = hunt(parity[1][0]);
+        if (cell < 0)
+            for (int c = 0; c < cells && cell < 0; c++)
+                if (!isSet(shot, c))
+                    cell = c;
+        if (cell < 0)
+            throw new IllegalStateException("ERROR! every cell of the board has been shot");
+        return toPosition(cell);
+    }
+
+    /**
+     * @return true if the strategy is finishing off a wounded ship
+     */
+    public boolean isTargeting() {
+        for (long word : hits)
+            if (word != 0)
+                return true;
+        return false;
+    }
+
+    private int smallestAfloat() {
+        for (ShipKind kind : KINDS)
+            if (afloat[kind.ordinal()] > 0)
+                return kind.getSize();
+        return 1;
+    }
+
+    /**
+     * @return the first unsettled cell of the pattern, or -1
+     */
+    private int hunt(long[] pattern) {
+        for (int w = 0; w < pattern.length; w++) {
+            long open = pattern[w] & ~shot[w] & ~blocked[w];
+            if (open != 0)
+                return (w << 6) + Long.numberOfTrailingZeros(open);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the best unsettled cell next to a hit, or -1 if there is none
+     */
+    private int target() {
+        int best = -1;
+        int bestScore = 0;
+        int columns = spec.getColumns();
+        for (int w = 0; w < hits.length; w++)
+            for (long word = hits[w]; word != 0; word &= word - 1) {
+                int hit = (w << 6) + Long.numberOfTrailingZeros(word);
+                int row = hit / columns;
+                int column = hit % columns;
+                for (int d = 0; d < ROW_STEP.length; d++) {
+                    int r = row + ROW_STEP[d];
+                    int c = column + COLUMN_STEP[d];
+                    if (!spec.isInside(r, c) || isSettled(r * columns + c))
+                        continue;
+                    // a hit on the other side puts the cell on the ship's axis
+                    int score = 1;
+                    int br = row - ROW_STEP[d];
+                    int bc = column - COLUMN_STEP[d];
+                    if (spec.isInside(br, bc) && isSet(hits, br * columns + bc))
+                        score += 4;
+                    if (score > bestScore) {
+                        best = r * columns + c;
+                        bestScore = score;
+                    }
+                }
+            }
+        return best;
+    }
+}
@@ -9,6 +9,8 @@ public interface IFleet {
     Integer BOARD_SIZE = 10;
     Integer FLEET_SIZE = 10;
 
+    BoardSpec getSpec();
+
     List<IShip> getShips();
 
     boolean addShip(IShip s);
@@ -17,7 +19,11 @@ public interface IFleet {
 
     List<IShip> getFloatingShips();
 
+    int getFloatingCount();
+
     IShip shipAt(IPosition pos);
 
+    IShip shoot(IPosition pos);
+
     void printStatus();
 }
@@ -20,6 +20,13 @@ public interface IGame {
 
     int getRemainingShips();
 
+    /**
+     * @return the {@link Zobrist} hash of the cells shot, hit and sunk so far
+     */
+    long getKnowledgeHash();
+
+    boolean isOver();
+
     void printValidShots();
 
     void printFleet();
@@ -33,4 +33,13 @@ public interface IShip {
     boolean tooCloseTo(IPosition pos);
 
     void shoot(IPosition pos);
+
+    /**
+     * Shoots the segment stored at the given index of {@link #getPositions()}
+     *
+     * @param segment index of the segment that was hit
+     */
+    default void shootSegment(int segment) {
+        shoot(getPositions().get(segment));
+    }
 }
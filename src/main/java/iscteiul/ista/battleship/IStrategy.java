@@ -0,0 +1,63 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A player choosing where to shoot. The strategy is told the outcome of
+ * every shot it chose and is reused from game to game through
+ * {@link #reset()}.
+ */
+public interface IStrategy {
+    /**
+     * @return the board the strategy plays on
+     */
+    BoardSpec getSpec();
+
+    /**
+     * Forgets everything learnt, ready for a new game
+     */
+    void reset();
+
+    /**
+     * Forgets everything learnt, ready for a new game whose random choices,
+     * if the strategy makes any, are drawn from the given source
+     */
+    default void reset(RandomGenerator random) {
+        reset();
+    }
+
+    /**
+     * @return the next cell to shoot, on the board and not shot before
+     */
+    IPosition nextShot();
+
+    /**
+     * @param row    row of the shot
+     * @param column column of the shot
+     * @param hit    true if the shot hit a ship
+     * @param sunk   the ship sunk by the shot, or null
+     */
+    void observe(int row, int column, boolean hit, IShip sunk);
+
+    /**
+     * Plays the game to the end, or until the strategy has shot every cell
+     * of the board.
+     *
+     * @return the number of shots fired
+     */
+    default int playOut(IGame game) {
+        int shots = 0;
+        long cells = (long) getSpec().getRows() * getSpec().getColumns();
+        while (!game.isOver() && shots < cells) {
+            IPosition pos = nextShot();
+            int hits = game.getHits();
+            IShip sunk = game.fire(pos);
+            observe(pos.getRow(), pos.getColumn(), game.getHits() > hits, sunk);
+            shots++;
+        }
+        return shots;
+    }
+}
@@ -0,0 +1,352 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The first shots of {@link DensityTargeting}, computed offline for every
+ * outcome of the shots before them and read back through a read-only
+ * {@link MappedByteBuffer}, so that strategies open a game without searching
+ * and the processes of one host share the pages of the file.
+ * <p>
+ * The book is a ternary tree in heap order: the root is the first shot and
+ * the children of node n, for a miss, a hit and a sinking hit, are nodes
+ * 3n + 1, 3n + 2 and 3n + 3. Each node holds the cell to shoot, numbered row
+ * * columns + column, as a {@code short}, or -1 where the outcomes leading to
+ * it cannot happen. The file starts with the magic number, the board, the
+ * number of ship kinds and the ships of each kind, and the depth of the
+ * tree.
+ */
+public final class OpeningBook {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    /**
+     * Outcomes of a shot, in the order of the children of a node
+     */
+    public static final int MISS = 0;
+    public static final int HIT = 1;
+    public static final int SUNK = 2;
+
+    /**
+     * Deepest book built, 265 720 nodes
+     */
+    public static final int MAX_DEPTH = 12;
+
+    /**
+     * Node of no book, reached by leaving it
+     */
+    public static final int NONE = -1;
+
+    private static final int MAGIC = 0x42_4F_4B_32; // "BOK2"
+    private static final int KINDS = ShipKind.values().length;
+    private static final int HEADER = 4 * (5 + KINDS);
+
+    private final BoardSpec spec;
+    private final int depth;
+    private final int nodes;
+    private final ByteBuffer buffer;
+
+    private OpeningBook(BoardSpec spec, int depth, ByteBuffer buffer) {
+        this.spec = spec;
+        this.depth = depth;
+        this.nodes = nodeCount(depth);
+        this.buffer = buffer;
+    }
+
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of nodes of the book, reachable or not
+     */
+    public int size() {
+        return nodes;
+    }
+
+    /**
+     * @return the cell to shoot at the node, or -1 if the book has none
+     */
+    public int shot(int node) {
+        if (node < 0 || node >= nodes)
+            return NONE;
+        return buffer.getShort(HEADER + 2 * node);
+    }
+
+    /**
+     * @return the node following the given outcome of the shot of a node, or
+     * {@link #NONE} past the end of the book
+     */
+    public int child(int node, int outcome) {
+        if (node < 0)
+            return NONE;
+        long next = 3L * node + 1 + outcome;
+        return next < nodes ? (int) next : NONE;
+    }
+
+    /**
+     * Maps a book into memory, read-only
+     *
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook load(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER)
+                throw new IOException("ERROR! " + file + " is not an opening book");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC)
+            throw new IOException("ERROR! " + file + " is not an opening book");
+        int rows = buffer.getInt(4);
+        int columns = buffer.getInt(8);
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > Placements.MAX_CELLS)
+            throw new IOException("ERROR! opening book " + file + " has an invalid board " + rows + "x" + columns);
+        if (buffer.getInt(12) != KINDS)
+            throw new IOException("ERROR! opening book " + file + " was built for " + buffer.getInt(12)
+                    + " kinds of ships, not " + KINDS);
+        Map<ShipKind, Integer> composition = new EnumMap<>(ShipKind.class);
+        for (ShipKind kind : ShipKind.values()) {
+            int count = buffer.getInt(16 + 4 * kind.ordinal());
+            if (count < 0 || count > rows * columns)
+                throw new IOException("ERROR! opening book " + file + " has an invalid number of ships " + count);
+            composition.put(kind, count);
+        }
+        int depth = buffer.getInt(HEADER - 4);
+        if (depth < 1 || depth > MAX_DEPTH || buffer.capacity() != HEADER + 2L * nodeCount(depth))
+            throw new IOException("ERROR! opening book " + file + " is truncated");
+
+        OpeningBook book = new OpeningBook(new BoardSpec(rows, columns, composition), depth, buffer);
+        LOGGER.info("livro de aberturas {} carregado: {} posições, profundidade {}", file, book.size(), depth);
+        return book;
+    }
+
+    /**
+     * Computes the book of the board and writes it to a file
+     *
+     * @return the number of reachable nodes
+     * @throws IOException if the file cannot be written
+     */
+    public static int build(Placements placements, int depth, Path file) throws IOException {
+        checkDepth(depth);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            return build(placements, depth, out);
+        }
+    }
+
+    /**
+     * Computes the book of the board and writes it to the stream, which is
+     * left open.
+     *
+     * @return the number of reachable nodes
+     * @throws UncheckedIOException if the stream fails
+     */
+    public static int build(Placements placements, int depth, OutputStream out) {
+        checkDepth(depth);
+
+        BoardSpec spec = placements.getSpec();
+        Builder builder = new Builder(placements, depth);
+        builder.fill(0, 0);
+
+        DataOutputStream data = new DataOutputStream(out);
+        try {
+            data.writeInt(MAGIC);
+            data.writeInt(spec.getRows());
+            data.writeInt(spec.getColumns());
+            data.writeInt(KINDS);
+            for (ShipKind kind : ShipKind.values())
+                data.writeInt(spec.getCount(kind));
+            data.writeInt(depth);
+            for (short cell : builder.book)
+                data.writeShort(cell);
+            data.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        LOGGER.info("livro de aberturas do tabuleiro {}: {} posições alcançáveis de {}", spec, builder.reachable,
+                builder.book.length);
+        return builder.reachable;
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth < 1 || depth > MAX_DEPTH)
+            throw new IllegalArgumentException("ERROR! invalid opening book depth " + depth);
+    }
+
+    private static int nodeCount(int depth) {
+        int count = 0;
+        for (int d = 0, width = 1; d < depth; d++, width *= 3)
+            count += width;
+        return count;
+    }
+
+    /**
+     * Builds the book of the default board
+     *
+     * @param args depth (8 by default) and file ("abertura.bok" by default)
+     */
+    public static void main(String[] args) throws IOException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        Path file = Path.of(args.length > 1 ? args[1] : "abertura.bok");
+        build(new Placements(BoardSpec.DEFAULT), depth, file);
+    }
+
+    /*
+     * Walks the tree depth first, replaying the path to each node into a
+     * fresh strategy to learn its shot.
+     */
+    private static class Builder {
+        private final Placements placements;
+        private final BoardSpec spec;
+        private final DensityTargeting strategy;
+        private final short[] book;
+        // shots and outcomes from the root to the current node
+        private final int[] pathCells;
+        private final int[] pathOutcomes;
+        private final IShip[] pathSunk;
+        private int reachable;
+
+        Builder(Placements placements, int depth) {
+            this.placements = placements;
+            this.spec = placements.getSpec();
+            this.strategy = new DensityTargeting(placements);
+            this.book = new short[nodeCount(depth)];
+            Arrays.fill(book, (short) NONE);
+            this.pathCells = new int[depth];
+            this.pathOutcomes = new int[depth];
+            this.pathSunk = new IShip[depth];
+        }
+
+        void fill(int node, int length) {
+            replay(length);
+            if (!hasShipsAfloat())
+                return;
+            int cell = toCell(strategy.nextShot());
+            book[node] = (short) cell;
+            reachable++;
+            if (3L * node + 1 >= book.length)
+                return;
+
+            pathCells[length] = cell;
+            for (int outcome = MISS; outcome <= SUNK; outcome++) {
+                replay(length);
+                IShip sunk = null;
+                if (outcome == SUNK && (sunk = sunkShip(cell)) == null)
+                    continue;
+                if (outcome == HIT && !canGrow(cell))
+                    continue;
+                pathOutcomes[length] = outcome;
+                pathSunk[length] = sunk;
+                fill(3 * node + 1 + outcome, length + 1);
+            }
+        }
+
+        private void replay(int length) {
+            strategy.reset();
+            for (int i = 0; i < length; i++) {
+                int cell = pathCells[i];
+                strategy.observe(cell / spec.getColumns(), cell % spec.getColumns(), pathOutcomes[i] != MISS,
+                        pathSunk[i]);
+            }
+        }
+
+        private boolean hasShipsAfloat() {
+            for (int ships : strategy.afloat)
+                if (ships > 0)
+                    return true;
+            return false;
+        }
+
+        /*
+         * The ship sunk by a hit on the cell: the cell and the unresolved hits
+         * touching it, ships never touching each other, if they make a
+         * placement of a kind still afloat.
+         */
+        private IShip sunkShip(int cell) {
+            long[] ship = wreck(cell);
+            int size = 0;
+            for (long word : ship)
+                size += Long.bitCount(word);
+            for (ShipKind kind : ShipKind.values()) {
+                if (kind.getSize() != size || strategy.afloat[kind.ordinal()] == 0)
+                    continue;
+                for (int p = placements.first(kind); p < placements.end(kind); p++)
+                    if (placements.overlap(p, ship) == size)
+                        return placements.build(p);
+            }
+            return null;
+        }
+
+        /*
+         * True if a larger ship still afloat can cover the cell and the hits
+         * touching it, without covering a known empty cell or touching
+         * another hit.
+         */
+        private boolean canGrow(int cell) {
+            long[] ship = wreck(cell);
+            int size = 0;
+            for (long word : ship)
+                size += Long.bitCount(word);
+            for (ShipKind kind : ShipKind.values()) {
+                if (kind.getSize() <= size || strategy.afloat[kind.ordinal()] == 0)
+                    continue;
+                for (int p = placements.first(kind); p < placements.end(kind); p++)
+                    if (placements.covers(p, ship) && placements.fits(p, strategy.blocked)
+                            && placements.isolatedFrom(p, strategy.hits))
+                        return true;
+            }
+            return false;
+        }
+
+        // the cell and the unresolved hits connected to it
+        private long[] wreck(int cell) {
+            long[] ship = new long[placements.words()];
+            int[] stack = new int[spec.getRows() * spec.getColumns()];
+            int top = 0;
+            ship[cell >>> 6] |= 1L << cell;
+            stack[top++] = cell;
+            while (top > 0) {
+                int at = stack[--top];
+                int row = at / spec.getColumns();
+                int column = at % spec.getColumns();
+                for (int r = row - 1; r <= row + 1; r++)
+                    for (int c = column - 1; c <= column + 1; c++) {
+                        if (!spec.isInside(r, c))
+                            continue;
+                        int next = r * spec.getColumns() + c;
+                        if (TrackingStrategy.isSet(strategy.hits, next) && !TrackingStrategy.isSet(ship, next)) {
+                            ship[next >>> 6] |= 1L << next;
+                            stack[top++] = next;
+                        }
+                    }
+            }
+            return ship;
+        }
+
+        private int toCell(IPosition pos) {
+            return pos.getRow() * spec.getColumns() + pos.getColumn();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays the shots of an {@link OpeningBook} while the game follows it, then
+ * those of another strategy. The other strategy observes every shot from the
+ * start, so it knows the whole game once the book runs out.
+ */
+public class OpeningBookStrategy implements IStrategy {
+    private final OpeningBook book;
+    private final IStrategy fallback;
+
+    // node of the book for the next shot, or OpeningBook.NONE once left
+    private int node;
+
+    /**
+     * @param book     the opening to play
+     * @param fallback plays the rest of the game, on the board of the book
+     */
+    public OpeningBookStrategy(OpeningBook book, IStrategy fallback) {
+        if (!book.getSpec().equals(fallback.getSpec()))
+            throw new IllegalArgumentException("ERROR! opening book of board " + book.getSpec() + " used on "
+                    + fallback.getSpec());
+        this.book = book;
+        this.fallback = fallback;
+        this.node = 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#getSpec()
+     */
+    @Override
+    public BoardSpec getSpec() {
+        return fallback.getSpec();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#reset()
+     */
+    @Override
+    public void reset() {
+        node = 0;
+        fallback.reset();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#reset(java.util.random.RandomGenerator)
+     */
+    @Override
+    public void reset(RandomGenerator random) {
+        node = 0;
+        fallback.reset(random);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#nextShot()
+     */
+    @Override
+    public IPosition nextShot() {
+        int cell = book.shot(node);
+        if (cell < 0) {
+            node = OpeningBook.NONE;
+            return fallback.nextShot();
+        }
+        int columns = getSpec().getColumns();
+        return Cell.of(cell / columns, cell % columns);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#observe(int, int, boolean, battleship.IShip)
+     */
+    @Override
+    public void observe(int row, int column, boolean hit, IShip sunk) {
+        fallback.observe(row, column, hit, sunk);
+        int outcome = !hit ? OpeningBook.MISS : sunk == null ? OpeningBook.HIT : OpeningBook.SUNK;
+        node = book.child(node, outcome);
+    }
+
+    /**
+     * @return true while the shots come from the book
+     */
+    public boolean isInBook() {
+        return book.shot(node) >= 0;
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Every way of laying each kind of ship on an empty board, with the cells
+ * each placement covers as a bitboard mask and as a list of cell numbers
+ * (row * columns + column). Placements covering the same cells, such as a
+ * caravel heading north or south from the same origin, are listed once.
+ * <p>
+ * Placements are numbered consecutively, kind by kind, so those of a kind
+ * form the range [{@link #first(ShipKind)}, {@link #end(ShipKind)}).
+ */
+public final class Placements {
+    /**
+     * Largest board, in cells, for which placements are tabulated
+     */
+    public static final int MAX_CELLS = 4096;
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    private final BoardSpec spec;
+    private final int words;
+
+    private final int[] first;
+    private final ShipShape[] shapes;
+    private final int[] rows;
+    private final int[] columns;
+
+    // per placement, words entries: the cells covered, and those covered or touched
+    private final long[] footprints;
+    private final long[] halos;
+
+    // per placement p, the cells covered are cells[cellStart[p] .. cellStart[p + 1])
+    private final int[] cellStart;
+    private final int[] cells;
+
+    /**
+     * @param spec the board; its area must not exceed {@link #MAX_CELLS}
+     */
+    public Placements(BoardSpec spec) {
+        if ((long) spec.getRows() * spec.getColumns() > MAX_CELLS)
+            throw new IllegalArgumentException("ERROR! board " + spec + " is too large to tabulate placements");
+
+        this.spec = spec;
+        this.words = (spec.getRows() * spec.getColumns() + 63) >>> 6;
+
+        int capacity = ShipKind.values().length * BEARINGS.length * spec.getRows() * spec.getColumns();
+        ShipShape[] shapeList = new ShipShape[capacity];
+        int[] rowList = new int[capacity];
+        int[] columnList = new int[capacity];
+        first = new int[ShipKind.values().length + 1];
+
+        int n = 0;
+        for (ShipKind kind : ShipKind.values()) {
+            first[kind.ordinal()] = n;
+            Set<String> seen = new HashSet<>();
+            for (Compass bearing : BEARINGS) {
+                ShipShape shape = kind.shape(bearing);
+                for (int r = -shape.getTop(); r + shape.getBottom() < spec.getRows(); r++)
+                    for (int c = -shape.getLeft(); c + shape.getRight() < spec.getColumns(); c++)
+                        if (seen.add(footprintKey(shape, r, c))) {
+                            shapeList[n] = shape;
+                            rowList[n] = r;
+                            columnList[n] = c;
+                            n++;
+                        }
+            }
+        }
+        first[ShipKind.values().length] = n;
+
+        shapes = Arrays.copyOf(shapeList, n);
+        rows = Arrays.copyOf(rowList, n);
+        columns = Arrays.copyOf(columnList, n);
+        footprints = new long[n * words];
+        halos = new long[n * words];
+        cellStart = new int[n + 1];
+        int cellCount = 0;
+        for (int p = 0; p < n; p++)
+            cellCount += shapes[p].size();
+        cells = new int[cellCount];
+
+        int next = 0;
+        for (int p = 0; p < n; p++) {
+            cellStart[p] = next;
+            for (int i = 0; i < shapes[p].size(); i++) {
+                int row = rows[p] + shapes[p].getRowOffset(i);
+                int column = columns[p] + shapes[p].getColumnOffset(i);
+                int cell = row * spec.getColumns() + column;
+                cells[next++] = cell;
+                footprints[p * words + (cell >>> 6)] |= 1L << cell;
+                for (int r = row - 1; r <= row + 1; r++)
+                    for (int c = column - 1; c <= column + 1; c++)
+                        if (spec.isInside(r, c)) {
+                            int around = r * spec.getColumns() + c;
+                            halos[p * words + (around >>> 6)] |= 1L << around;
+                        }
+            }
+        }
+        cellStart[n] = next;
+    }
+
+    private String footprintKey(ShipShape shape, int row, int column) {
+        int[] covered = new int[shape.size()];
+        for (int i = 0; i < covered.length; i++)
+            covered[i] = (row + shape.getRowOffset(i)) * spec.getColumns() + column + shape.getColumnOffset(i);
+        Arrays.sort(covered);
+        return Arrays.toString(covered);
+    }
+
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /**
+     * @return the number of long words of a mask over the board
+     */
+    public int words() {
+        return words;
+    }
+
+    /**
+     * @return the number of placements of all kinds
+     */
+    public int size() {
+        return shapes.length;
+    }
+
+    /**
+     * @return the first placement of the given kind
+     */
+    public int first(ShipKind kind) {
+        return first[kind.ordinal()];
+    }
+
+    /**
+     * @return one past the last placement of the given kind
+     */
+    public int end(ShipKind kind) {
+        return first[kind.ordinal() + 1];
+    }
+
+    public ShipShape shape(int p) {
+        return shapes[p];
+    }
+
+    public int row(int p) {
+        return rows[p];
+    }
+
+    public int column(int p) {
+        return columns[p];
+    }
+
+    /**
+     * @return the number of cells covered by the placement
+     */
+    public int cellCount(int p) {
+        return cellStart[p + 1] - cellStart[p];
+    }
+
+    /**
+     * @return the number, row * columns + column, of the i-th cell covered by
+     * the placement
+     */
+    public int cell(int p, int i) {
+        return cells[cellStart[p] + i];
+    }
+
+    /**
+     * @return true if the placement covers no cell of the mask
+     */
+    public boolean fits(int p, long[] mask) {
+        int base = p * words;
+        for (int w = 0; w < words; w++)
+            if ((footprints[base + w] & mask[w]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * @return true if the placement covers every cell of the mask
+     */
+    public boolean covers(int p, long[] mask) {
+        int base = p * words;
+        for (int w = 0; w < words; w++)
+            if ((mask[w] & ~footprints[base + w]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * @return the number of cells of the mask covered by the placement
+     */
+    public int overlap(int p, long[] mask) {
+        int base = p * words;
+        int count = 0;
+        for (int w = 0; w < words; w++)
+            count += Long.bitCount(footprints[base + w] & mask[w]);
+        return count;
+    }
+
+    /**
+     * @return true if the placement touches no cell of the mask without
+     * covering it; a ship so placed could not share the board with ships
+     * covering those cells
+     */
+    public boolean isolatedFrom(int p, long[] mask) {
+        int base = p * words;
+        for (int w = 0; w < words; w++)
+            if ((halos[base + w] & mask[w] & ~footprints[base + w]) != 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Adds to the mask the cells covered by the placement
+     */
+    public void addFootprint(int p, long[] mask) {
+        int base = p * words;
+        for (int w = 0; w < words; w++)
+            mask[w] |= footprints[base + w];
+    }
+
+    /**
+     * Adds to the mask the cells covered or touched by the placement
+     */
+    public void addHalo(int p, long[] mask) {
+        int base = p * words;
+        for (int w = 0; w < words; w++)
+            mask[w] |= halos[base + w];
+    }
+
+    /**
+     * @return a new ship laid as the placement
+     */
+    public Ship build(int p) {
+        return shapes[p].getKind().build(shapes[p].getBearing(), Cell.of(rows[p], columns[p]));
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bounded cache of the per-cell density maps of one board, keyed by the
+ * {@link Zobrist} hash of the knowledge they were computed from, so that
+ * games going through the same states, as every game does at its start,
+ * compute each map once. It may be shared by the strategies of many threads.
+ * <p>
+ * Entries are spread over segments by hash, each guarded by its own lock and
+ * evicting its least recently used entry once full, so eviction is LRU
+ * within a segment rather than across the whole cache. Maps are copied in
+ * and out, so callers never share an array.
+ */
+public class ProbabilityCache {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final BoardSpec spec;
+    private final int capacity;
+    private final Segment[] segments;
+    private final int segmentShift;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param spec     the board whose maps are cached
+     * @param capacity the largest number of maps kept
+     */
+    public ProbabilityCache(BoardSpec spec, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("ERROR! invalid cache capacity " + capacity);
+
+        this.spec = spec;
+        this.capacity = capacity;
+        int count = Integer.highestOneBit(Math.min(capacity, MAX_SEGMENTS));
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(count);
+        this.segments = new Segment[count];
+        for (int s = 0; s < count; s++)
+            segments[s] = new Segment(capacity / count + (s < capacity % count ? 1 : 0));
+    }
+
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies the map cached for a knowledge state
+     *
+     * @param hash the hash of the knowledge state
+     * @param map  receives the cached map, one entry per cell
+     * @return true if the map was cached, false leaving the array untouched
+     */
+    public boolean get(long hash, long[] map) {
+        Segment segment = segmentOf(hash);
+        synchronized (segment) {
+            long[] cached = segment.get(hash);
+            if (cached == null) {
+                misses.incrementAndGet();
+                return false;
+            }
+            System.arraycopy(cached, 0, map, 0, cached.length);
+        }
+        hits.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Caches a copy of the map computed for a knowledge state, evicting the
+     * least recently used map of its segment if full
+     */
+    public void put(long hash, long[] map) {
+        long[] copy = map.clone();
+        Segment segment = segmentOf(hash);
+        synchronized (segment) {
+            segment.put(hash, copy);
+        }
+    }
+
+    /**
+     * @return the number of maps cached
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments)
+            synchronized (segment) {
+                size += segment.size();
+            }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the share of the lookups that found their map, 0 before any
+     */
+    public double hitRate() {
+        long hit = hits.get();
+        long lookups = hit + misses.get();
+        return lookups == 0 ? 0 : (double) hit / lookups;
+    }
+
+    public void log() {
+        LOGGER.info("cache de densidades: {} mapas de {}, {} acertos, {} falhas ({}%)", size(), capacity,
+                getHits(), getMisses(), String.format("%.1f", 100 * hitRate()));
+    }
+
+    private Segment segmentOf(long hash) {
+        // Zobrist hashes are uniform, so their top bits pick the segment
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    private static class Segment extends LinkedHashMap<Long, long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * The seeds of a run of many games, derived in a hierarchy: the run seed
+ * gives a seed to each block of {@link #BLOCK_SIZE} consecutive games, and
+ * each block seed gives a seed to each of its games. Blocks are a unit of
+ * seeding only; how the games are split among workers is up to the caller,
+ * such as {@link BatchSimulator}. Every seed is a pure function of the run
+ * seed and the game number, so the results do not depend on the number of
+ * threads, and a game can be replayed alone on one thread.
+ * <p>
+ * Within a game, {@link #gameRandom(long)} is split once for the fleet and
+ * once for the strategy, in that order, so neither draws from the other's
+ * stream.
+ */
+public final class RunSeeds {
+    /**
+     * Games sharing a block seed
+     */
+    public static final int BLOCK_SIZE = 1 << 8;
+
+    private static final long GOLDEN_GAMMA = 0x9E37_79B9_7F4A_7C15L;
+
+    private final long runSeed;
+
+    /**
+     * @param runSeed the seed of the whole run
+     */
+    public RunSeeds(long runSeed) {
+        this.runSeed = runSeed;
+    }
+
+    public long getRunSeed() {
+        return runSeed;
+    }
+
+    /**
+     * @return the seed of the block holding the given game
+     */
+    public long blockSeed(long game) {
+        return derive(runSeed, game / BLOCK_SIZE);
+    }
+
+    /**
+     * @return the seed of the given game
+     */
+    public long gameSeed(long game) {
+        return derive(blockSeed(game), game % BLOCK_SIZE);
+    }
+
+    /**
+     * @return a new generator for the given game
+     */
+    public SplittableRandom gameRandom(long game) {
+        return new SplittableRandom(gameSeed(game));
+    }
+
+    /**
+     * @return the seed of the index-th child of a parent seed
+     */
+    public static long derive(long parent, long index) {
+        return mix(parent + mix(index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * The finalizer of the SplitMix64 generator, a bijection spreading every
+     * input bit over the whole output
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
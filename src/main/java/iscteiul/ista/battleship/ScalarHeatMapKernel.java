@@ -0,0 +1,48 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+/**
+ * The heat map kernel one placement at a time, for JVMs without the Vector
+ * API.
+ */
+public class ScalarHeatMapKernel extends HeatMapKernel {
+
+    /**
+     * @param spec the board
+     */
+    public ScalarHeatMapKernel(BoardSpec spec) {
+        super(spec);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.HeatMapKernel#compute(long[], int[], int[])
+     */
+    @Override
+    public void compute(long[] blocked, int[] weights, int[] heat) {
+        Arrays.fill(heat, 0, rows * columns, 0);
+        for (int s = 0; s < shapeKind.length; s++) {
+            int weight = weights[shapeKind[s]];
+            if (weight == 0)
+                continue;
+            int[] dr = shapeRows[s];
+            int[] dc = shapeColumns[s];
+            for (int r = 0; r + shapeHeight[s] <= rows; r++)
+                for (int c = 0; c + shapeWidth[s] <= columns; c++) {
+                    boolean open = true;
+                    for (int i = 0; i < dr.length && open; i++) {
+                        int cell = (r + dr[i]) * columns + c + dc[i];
+                        open = (blocked[cell >>> 6] & (1L << cell)) == 0;
+                    }
+                    if (open)
+                        for (int i = 0; i < dr.length; i++)
+                            heat[(r + dr[i]) * columns + c + dc[i]] += weight;
+                }
+        }
+    }
+}
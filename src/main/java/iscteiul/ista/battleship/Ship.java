@@ -9,12 +9,6 @@ import java.util.List;
 
 public abstract class Ship implements IShip {
 
-    private static final String GALEAO = "galeao";
-    private static final String FRAGATA = "fragata";
-    private static final String NAU = "nau";
-    private static final String CARAVELA = "caravela";
-    private static final String BARCA = "barca";
-
     /**
      * @param shipKind
      * @param bearing
@@ -22,27 +16,8 @@ public abstract class Ship implements IShip {
      * @return
      */
     static Ship buildShip(String shipKind, Compass bearing, Position pos) {
-        Ship s;
-        switch (shipKind) {
-            case BARCA:
-                s = new Barge(bearing, pos);
-                break;
-            case CARAVELA:
-                s = new Caravel(bearing, pos);
-                break;
-            case NAU:
-                s = new Carrack(bearing, pos);
-                break;
-            case FRAGATA:
-                s = new Frigate(bearing, pos);
-                break;
-            case GALEAO:
-                s = new Galleon(bearing, pos);
-                break;
-            default:
-                s = null;
-        }
-        return s;
+        ShipKind kind = ShipKind.ofKey(shipKind);
+        return kind == null ? null : kind.build(bearing, pos);
     }
 
 
@@ -51,6 +26,16 @@ public abstract class Ship implements IShip {
     private IPosition pos;
     protected List<IPosition> positions;
 
+    // bit i is set once the segment at positions.get(i) has been hit
+    private int hits;
+
+    // bounding box, valid while positions holds boundsSize entries
+    private int top;
+    private int bottom;
+    private int left;
+    private int right;
+    private int boundsSize;
+
 
     /**
      * @param category
@@ -65,6 +50,32 @@ public abstract class Ship implements IShip {
         this.bearing = bearing;
         this.pos = pos;
         positions = new ArrayList<>();
+        hits = 0;
+        boundsSize = -1;
+    }
+
+    /**
+     * Places a ship by laying the given shape over its origin. The segments
+     * are interned cells, so no object is allocated per segment.
+     *
+     * @param category
+     * @param pos
+     * @param shape    the cells covered by the ship, relative to pos
+     */
+    protected Ship(String category, IPosition pos, ShipShape shape) {
+        this(category, shape.getBearing(), pos);
+
+        int row = pos.getRow();
+        int column = pos.getColumn();
+        positions = new ArrayList<>(shape.size());
+        for (int i = 0; i < shape.size(); i++)
+            positions.add(Cell.of(row + shape.getRowOffset(i), column + shape.getColumnOffset(i)));
+
+        top = row + shape.getTop();
+        bottom = row + shape.getBottom();
+        left = column + shape.getLeft();
+        right = column + shape.getRight();
+        boundsSize = shape.size();
     }
 
     /*
@@ -111,10 +122,37 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean stillFloating() {
-        for (int i = 0; i < getSize(); i++)
-            if (!getPositions().get(i).isHit())
-                return true;
-        return false;
+        int intact = (1 << getSize()) - 1;
+        return (hits & intact) != intact;
+    }
+
+    /**
+     * @param segment index of a segment in {@link #getPositions()}
+     * @return true if that segment has been hit
+     */
+    public boolean isSegmentHit(int segment) {
+        return (hits & (1 << segment)) != 0;
+    }
+
+    /**
+     * Computes the bounding box of the ship, unless the cached one is still
+     * valid. Ships do not move, so this only scans the positions again if
+     * segments were added since the last time.
+     */
+    private void updateBounds() {
+        if (boundsSize == positions.size())
+            return;
+
+        top = bottom = getPositions().get(0).getRow();
+        left = right = getPositions().get(0).getColumn();
+        for (int i = 1; i < getSize(); i++) {
+            IPosition p = getPositions().get(i);
+            top = Math.min(top, p.getRow());
+            bottom = Math.max(bottom, p.getRow());
+            left = Math.min(left, p.getColumn());
+            right = Math.max(right, p.getColumn());
+        }
+        boundsSize = positions.size();
     }
 
     /*
@@ -124,10 +162,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getTopMostPos() {
-        int top = getPositions().get(0).getRow();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getRow() < top)
-                top = getPositions().get(i).getRow();
+        updateBounds();
         return top;
     }
 
@@ -138,10 +173,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getBottomMostPos() {
-        int bottom = getPositions().get(0).getRow();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getRow() > bottom)
-                bottom = getPositions().get(i).getRow();
+        updateBounds();
         return bottom;
     }
 
@@ -152,10 +184,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getLeftMostPos() {
-        int left = getPositions().get(0).getColumn();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getColumn() < left)
-                left = getPositions().get(i).getColumn();
+        updateBounds();
         return left;
     }
 
@@ -166,10 +195,7 @@ public abstract class Ship implements IShip {
      */
     @Override
     public int getRightMostPos() {
-        int right = getPositions().get(0).getColumn();
-        for (int i = 1; i < getSize(); i++)
-            if (getPositions().get(i).getColumn() > right)
-                right = getPositions().get(i).getColumn();
+        updateBounds();
         return right;
     }
 
@@ -182,6 +208,10 @@ public abstract class Ship implements IShip {
     public boolean occupies(IPosition pos) {
         assert pos != null;
 
+        updateBounds();
+        if (pos.getRow() < top || pos.getRow() > bottom || pos.getColumn() < left || pos.getColumn() > right)
+            return false;
+
         for (int i = 0; i < getSize(); i++)
             if (getPositions().get(i).equals(pos))
                 return true;
@@ -197,6 +227,11 @@ public abstract class Ship implements IShip {
     public boolean tooCloseTo(IShip other) {
         assert other != null;
 
+        updateBounds();
+        if (other.getBottomMostPos() < top - 1 || other.getTopMostPos() > bottom + 1
+                || other.getRightMostPos() < left - 1 || other.getLeftMostPos() > right + 1)
+            return false;
+
         Iterator<IPosition> otherPos = other.getPositions().iterator();
         while (otherPos.hasNext())
             if (tooCloseTo(otherPos.next()))
@@ -212,6 +247,11 @@ public abstract class Ship implements IShip {
      */
     @Override
     public boolean tooCloseTo(IPosition pos) {
+        updateBounds();
+        if (pos.getRow() < top - 1 || pos.getRow() > bottom + 1
+                || pos.getColumn() < left - 1 || pos.getColumn() > right + 1)
+            return false;
+
         for (int i = 0; i < this.getSize(); i++)
             if (getPositions().get(i).isAdjacentTo(pos))
                 return true;
@@ -228,10 +268,19 @@ public abstract class Ship implements IShip {
     public void shoot(IPosition pos) {
         assert pos != null;
 
-        for (IPosition position : getPositions()) {
-            if (position.equals(pos))
-                position.shoot();
-        }
+        for (int i = 0; i < getPositions().size(); i++)
+            if (getPositions().get(i).equals(pos))
+                hits |= 1 << i;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IShip#shootSegment(int)
+     */
+    @Override
+    public void shootSegment(int segment) {
+        hits |= 1 << segment;
     }
 
 
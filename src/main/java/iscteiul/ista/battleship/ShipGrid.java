@@ -0,0 +1,91 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A uniform grid of square buckets over a board. Each ship is filed, by its
+ * index in the fleet, under every bucket its bounding box overlaps, so the
+ * ships near a region are found without looking at the rest of the fleet.
+ */
+public class ShipGrid {
+    private static final int BUCKET_SHIFT = 3;
+
+    private final BoardSpec spec;
+    private final long bucketColumns;
+
+    // first entry of each bucket, plus one; entries of a bucket are chained
+    private final LongIntHashMap heads;
+    private int[] entryShip;
+    private int[] entryNext;
+    private int entries;
+
+    // per ship, the last query that visited it
+    private int[] visited;
+    private int query;
+
+    /**
+     * @param spec the board covered by the grid
+     */
+    public ShipGrid(BoardSpec spec) {
+        this.spec = spec;
+        this.bucketColumns = ((spec.getColumns() - 1) >> BUCKET_SHIFT) + 1;
+        this.heads = new LongIntHashMap();
+        this.entryShip = new int[16];
+        this.entryNext = new int[16];
+        this.entries = 0;
+        this.visited = new int[16];
+        this.query = 0;
+    }
+
+    /**
+     * Files a ship under the buckets overlapped by the given bounding box
+     *
+     * @param id the index of the ship in its fleet
+     */
+    public void add(int id, int top, int bottom, int left, int right) {
+        if (id >= visited.length)
+            visited = Arrays.copyOf(visited, Math.max(id + 1, visited.length * 2));
+
+        for (int br = bucket(top, spec.getRows()); br <= bucket(bottom, spec.getRows()); br++)
+            for (int bc = bucket(left, spec.getColumns()); bc <= bucket(right, spec.getColumns()); bc++) {
+                if (entries == entryShip.length) {
+                    entryShip = Arrays.copyOf(entryShip, entries * 2);
+                    entryNext = Arrays.copyOf(entryNext, entries * 2);
+                }
+                long key = br * bucketColumns + bc;
+                entryShip[entries] = id;
+                entryNext[entries] = heads.get(key);
+                heads.put(key, ++entries);
+            }
+    }
+
+    /**
+     * Visits, once each, the ships filed under the buckets overlapped by the
+     * given region, until the test accepts one of them
+     *
+     * @param test called with the index of each ship found
+     * @return true if the test accepted a ship
+     */
+    public boolean anyNear(int top, int bottom, int left, int right, IntPredicate test) {
+        query++;
+        for (int br = bucket(top, spec.getRows()); br <= bucket(bottom, spec.getRows()); br++)
+            for (int bc = bucket(left, spec.getColumns()); bc <= bucket(right, spec.getColumns()); bc++)
+                for (int e = heads.get(br * bucketColumns + bc); e != 0; e = entryNext[e - 1]) {
+                    int id = entryShip[e - 1];
+                    if (visited[id] != query) {
+                        visited[id] = query;
+                        if (test.test(id))
+                            return true;
+                    }
+                }
+        return false;
+    }
+
+    private static int bucket(int coordinate, int limit) {
+        return Math.max(0, Math.min(coordinate, limit - 1)) >> BUCKET_SHIFT;
+    }
+}
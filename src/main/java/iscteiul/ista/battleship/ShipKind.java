@@ -0,0 +1,94 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The kinds of ship a fleet is made of
+ */
+public enum ShipKind {
+    BARGE("barca", "Barca", 1),
+    CARAVEL("caravela", "Caravela", 2),
+    CARRACK("nau", "Nau", 3),
+    FRIGATE("fragata", "Fragata", 4),
+    GALLEON("galeao", "Galeao", 5);
+
+    private final String key;
+    private final String category;
+    private final int size;
+
+    ShipKind(String key, String category, int size) {
+        this.key = key;
+        this.category = category;
+        this.size = size;
+    }
+
+    /**
+     * @return the word used to name this kind of ship in commands
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the category reported by ships of this kind
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param bearing the bearing of the ship
+     * @return the cells a ship of this kind covers with that bearing, or null
+     * if the bearing is not valid for this kind
+     */
+    public ShipShape shape(Compass bearing) {
+        return ShipShape.of(this, bearing);
+    }
+
+    /**
+     * @param bearing the bearing of the ship
+     * @param pos     the origin of the ship
+     * @return a new ship of this kind
+     */
+    public Ship build(Compass bearing, IPosition pos) {
+        switch (this) {
+            case BARGE:
+                return new Barge(bearing, pos);
+            case CARAVEL:
+                return new Caravel(bearing, pos);
+            case CARRACK:
+                return new Carrack(bearing, pos);
+            case FRIGATE:
+                return new Frigate(bearing, pos);
+            default:
+                return new Galleon(bearing, pos);
+        }
+    }
+
+    /**
+     * @param key the word naming a kind of ship
+     * @return the matching kind, or null if there is none
+     */
+    static ShipKind ofKey(String key) {
+        for (ShipKind kind : values())
+            if (kind.key.equals(key))
+                return kind;
+        return null;
+    }
+
+    /**
+     * @param category the category of a ship
+     * @return the matching kind, or null if there is none
+     */
+    static ShipKind ofCategory(String category) {
+        for (ShipKind kind : values())
+            if (kind.category.equals(category))
+                return kind;
+        return null;
+    }
+}
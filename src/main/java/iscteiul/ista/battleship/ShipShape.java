@@ -0,0 +1,137 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * The cells covered by a kind of ship with a given bearing, as offsets from
+ * the origin of the ship, in the order the segments are stored. Shapes are
+ * computed once and shared by every ship.
+ */
+public final class ShipShape {
+    private static final ShipShape[][] TABLE = new ShipShape[ShipKind.values().length][Compass.values().length];
+
+    static {
+        for (ShipKind kind : ShipKind.values())
+            for (Compass bearing : Compass.values())
+                TABLE[kind.ordinal()][bearing.ordinal()] = template(kind, bearing);
+    }
+
+    /**
+     * @return the shape of the given kind of ship with the given bearing, or
+     * null if that kind cannot take that bearing
+     */
+    public static ShipShape of(ShipKind kind, Compass bearing) {
+        return TABLE[kind.ordinal()][bearing.ordinal()];
+    }
+
+    private static ShipShape template(ShipKind kind, Compass bearing) {
+        if (kind == ShipKind.BARGE)
+            return new ShipShape(kind, bearing, new int[]{0}, new int[]{0});
+        if (bearing == Compass.UNKNOWN)
+            return null;
+
+        if (kind == ShipKind.GALLEON) {
+            switch (bearing) {
+                case NORTH:
+                    return new ShipShape(kind, bearing, new int[]{0, 0, 0, 1, 2}, new int[]{0, 1, 2, 1, 1});
+                case SOUTH:
+                    return new ShipShape(kind, bearing, new int[]{0, 1, 2, 2, 2}, new int[]{0, 0, -1, 0, 1});
+                case EAST:
+                    return new ShipShape(kind, bearing, new int[]{0, 1, 1, 1, 2}, new int[]{0, -2, -1, 0, 0});
+                default:
+                    return new ShipShape(kind, bearing, new int[]{0, 1, 1, 1, 2}, new int[]{0, 0, 1, 2, 0});
+            }
+        }
+
+        int[] along = new int[kind.getSize()];
+        for (int i = 0; i < along.length; i++)
+            along[i] = i;
+        int[] across = new int[kind.getSize()];
+        if (bearing == Compass.NORTH || bearing == Compass.SOUTH)
+            return new ShipShape(kind, bearing, along, across);
+        return new ShipShape(kind, bearing, across, along);
+    }
+
+    private final ShipKind kind;
+    private final Compass bearing;
+    private final int[] rows;
+    private final int[] columns;
+    private final int top;
+    private final int bottom;
+    private final int left;
+    private final int right;
+
+    private ShipShape(ShipKind kind, Compass bearing, int[] rows, int[] columns) {
+        this.kind = kind;
+        this.bearing = bearing;
+        this.rows = rows;
+        this.columns = columns;
+
+        int t = 0, b = 0, l = 0, r = 0;
+        for (int i = 0; i < rows.length; i++) {
+            t = Math.min(t, rows[i]);
+            b = Math.max(b, rows[i]);
+            l = Math.min(l, columns[i]);
+            r = Math.max(r, columns[i]);
+        }
+        this.top = t;
+        this.bottom = b;
+        this.left = l;
+        this.right = r;
+    }
+
+    public ShipKind getKind() {
+        return kind;
+    }
+
+    public Compass getBearing() {
+        return bearing;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * @return the row offset of the given segment
+     */
+    public int getRowOffset(int segment) {
+        return rows[segment];
+    }
+
+    /**
+     * @return the column offset of the given segment
+     */
+    public int getColumnOffset(int segment) {
+        return columns[segment];
+    }
+
+    /**
+     * @return the smallest row offset of the shape
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * @return the largest row offset of the shape
+     */
+    public int getBottom() {
+        return bottom;
+    }
+
+    /**
+     * @return the smallest column offset of the shape
+     */
+    public int getLeft() {
+        return left;
+    }
+
+    /**
+     * @return the largest column offset of the shape
+     */
+    public int getRight() {
+        return right;
+    }
+}
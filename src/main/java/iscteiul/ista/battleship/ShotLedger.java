@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The valid shots of a game: a bitboard answers whether a cell was already
+ * shot, and the cells are also kept in firing order so that the list of shots
+ * can be rebuilt on demand.
+ */
+public class ShotLedger {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final BoardSpec spec;
+    private final CellSet shot;
+    private final int columns;
+
+    // cells in firing order, as row * columns + column
+    private long[] order;
+    private int count;
+
+    // list view of order, built lazily up to materialized entries
+    private final List<IPosition> view;
+    private int materialized;
+
+    /**
+     * @param spec the board being shot at
+     */
+    public ShotLedger(BoardSpec spec) {
+        this.spec = spec;
+        this.shot = spec.newCellSet();
+        this.columns = spec.getColumns();
+        this.order = new long[INITIAL_CAPACITY];
+        this.count = 0;
+        this.view = new ArrayList<>();
+        this.materialized = 0;
+    }
+
+    /**
+     * @return true if the given cell has already been recorded
+     */
+    public boolean contains(int row, int column) {
+        return shot.get(row, column);
+    }
+
+    /**
+     * Records a shot on the given cell, which must lie on the board
+     *
+     * @return false if the cell had already been shot
+     */
+    public boolean add(int row, int column) {
+        assert spec.isInside(row, column);
+
+        if (shot.get(row, column))
+            return false;
+        shot.set(row, column);
+        if (count == order.length)
+            order = Arrays.copyOf(order, count * 2);
+        order[count++] = (long) row * columns + column;
+        return true;
+    }
+
+    /**
+     * @return the number of recorded shots
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the recorded shots in firing order, as a read-only list
+     */
+    public List<IPosition> asList() {
+        for (; materialized < count; materialized++)
+            view.add(Cell.of((int) (order[materialized] / columns), (int) (order[materialized] % columns)));
+        return Collections.unmodifiableList(view);
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Outcomes of a batch of games, kept as histograms: the shots needed to win,
+ * the hits, the invalid and repeated shots, and for each kind of ship the
+ * place in which its ships were sunk (1 for the first ship sunk).
+ */
+public class SimulationStats {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Histogram shots;
+    private final Histogram hits;
+    private final Histogram invalid;
+    private final Histogram repeated;
+    private final Histogram[] sinkOrder;
+    private long unfinished;
+
+    /**
+     * @param spec the board the games are played on
+     */
+    public SimulationStats(BoardSpec spec) {
+        int cells = (int) Math.min(1 << 16, (long) spec.getRows() * spec.getColumns());
+        shots = new Histogram(cells);
+        hits = new Histogram(cells);
+        invalid = new Histogram(cells);
+        repeated = new Histogram(cells);
+        sinkOrder = new Histogram[ShipKind.values().length];
+        for (int k = 0; k < sinkOrder.length; k++)
+            sinkOrder[k] = new Histogram(spec.getFleetSize());
+    }
+
+    /**
+     * Records the totals of a finished or abandoned game
+     */
+    public void recordGame(IGame game, int shotsFired) {
+        if (game.isOver())
+            shots.record(shotsFired);
+        else
+            unfinished++;
+        hits.record(game.getHits());
+        invalid.record(game.getInvalidShots());
+        repeated.record(game.getRepeatedShots());
+    }
+
+    /**
+     * Records that a ship of the kind was the rank-th ship sunk in its game
+     */
+    public void recordSink(ShipKind kind, int rank) {
+        sinkOrder[kind.ordinal()].record(rank);
+    }
+
+    /**
+     * Adds to these statistics those of another batch on the same board
+     */
+    public void merge(SimulationStats other) {
+        shots.merge(other.shots);
+        hits.merge(other.hits);
+        invalid.merge(other.invalid);
+        repeated.merge(other.repeated);
+        for (int k = 0; k < sinkOrder.length; k++)
+            sinkOrder[k].merge(other.sinkOrder[k]);
+        unfinished += other.unfinished;
+    }
+
+    /**
+     * @return the number of games recorded
+     */
+    public long getGames() {
+        return hits.getCount();
+    }
+
+    /**
+     * @return the number of games given up before the fleet was sunk
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * @return the shots needed to win, over the games won
+     */
+    public Histogram getShots() {
+        return shots;
+    }
+
+    public Histogram getHits() {
+        return hits;
+    }
+
+    public Histogram getInvalid() {
+        return invalid;
+    }
+
+    public Histogram getRepeated() {
+        return repeated;
+    }
+
+    /**
+     * @return the place in which ships of the kind were sunk
+     */
+    public Histogram getSinkOrder(ShipKind kind) {
+        return sinkOrder[kind.ordinal()];
+    }
+
+    public void log() {
+        LOGGER.info("{} jogos, {} por terminar", getGames(), unfinished);
+        LOGGER.info("tiros ate vencer: {}", shots);
+        LOGGER.info("acertos: {}", hits);
+        LOGGER.info("tiros invalidos: {}", invalid);
+        LOGGER.info("tiros repetidos: {}", repeated);
+        for (ShipKind kind : ShipKind.values())
+            if (sinkOrder[kind.ordinal()].getCount() > 0)
+                LOGGER.info("ordem de afundamento da {}: {}", kind.getCategory(), sinkOrder[kind.ordinal()]);
+    }
+}
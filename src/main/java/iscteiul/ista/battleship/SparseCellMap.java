@@ -0,0 +1,35 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A {@link CellMap} that only stores the cells holding a value, for boards
+ * too large to keep one entry per cell. Memory grows with the number of cells
+ * in use, not with the area of the board.
+ */
+public class SparseCellMap implements CellMap {
+    private final int rows;
+    private final int columns;
+    private final LongIntHashMap values;
+
+    public SparseCellMap(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = new LongIntHashMap();
+    }
+
+    @Override
+    public int get(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return 0;
+        return values.get((long) row * columns + column);
+    }
+
+    @Override
+    public void put(int row, int column, int value) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return;
+        values.put((long) row * columns + column, value);
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * A {@link CellSet} for boards too large for a {@link Bitboard}
+ */
+public class SparseCellSet implements CellSet {
+    private final CellMap members;
+
+    public SparseCellSet(int rows, int columns) {
+        this.members = new SparseCellMap(rows, columns);
+    }
+
+    @Override
+    public boolean get(int row, int column) {
+        return members.get(row, column) != 0;
+    }
+
+    @Override
+    public void set(int row, int column) {
+        members.put(row, column, 1);
+    }
+
+    @Override
+    public void clear(int row, int column) {
+        members.put(row, column, 0);
+    }
+}
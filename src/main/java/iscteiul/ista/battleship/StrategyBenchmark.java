@@ -0,0 +1,99 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Plays a strategy against random fleets and measures how many shots it
+ * needs to win and how fast it chooses them. Only the time spent in
+ * {@link IStrategy#nextShot()} counts towards the decisions per second.
+ */
+public class StrategyBenchmark {
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final IStrategy strategy;
+    private final FleetGenerator generator;
+    private final RunSeeds seeds;
+
+    private long games;
+    private long shots;
+    private long decisionNanos;
+
+    /**
+     * @param strategy the strategy to measure
+     * @param seed     seed of the run, as in {@link BatchSimulator}
+     */
+    public StrategyBenchmark(IStrategy strategy, long seed) {
+        this.strategy = strategy;
+        this.seeds = new RunSeeds(seed);
+        this.generator = new FleetGenerator(strategy.getSpec(), seed);
+    }
+
+    /**
+     * Plays the given number of games to the end
+     */
+    public void run(int count) {
+        long cells = (long) strategy.getSpec().getRows() * strategy.getSpec().getColumns();
+        for (int g = 0; g < count; g++) {
+            SplittableRandom random = seeds.gameRandom(games);
+            Game game = new Game(generator.generate(random.split()));
+            strategy.reset(random.split());
+            for (long s = 0; s < cells && !game.isOver(); s++) {
+                long start = System.nanoTime();
+                IPosition pos = strategy.nextShot();
+                decisionNanos += System.nanoTime() - start;
+
+                int hits = game.getHits();
+                IShip sunk = game.fire(pos);
+                strategy.observe(pos.getRow(), pos.getColumn(), game.getHits() > hits, sunk);
+                shots++;
+            }
+            games++;
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return the average number of shots to sink a whole fleet
+     */
+    public double getAverageShots() {
+        return games == 0 ? 0 : (double) shots / games;
+    }
+
+    /**
+     * @return the shots chosen per second of decision time
+     */
+    public double getDecisionsPerSecond() {
+        return decisionNanos == 0 ? 0 : shots * 1e9 / decisionNanos;
+    }
+
+    public void log() {
+        LOGGER.info("{}: {} jogos, {} tiros por jogo, {} decisões/s", strategy.getClass().getSimpleName(), games,
+                String.format("%.2f", getAverageShots()), String.format("%.0f", getDecisionsPerSecond()));
+    }
+
+    /**
+     * Measures the bundled strategies on the default board
+     *
+     * @param args number of games to play, 10 000 by default
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        IStrategy[] strategies = {new HuntTargetStrategy(BoardSpec.DEFAULT), new DensityTargeting(BoardSpec.DEFAULT)};
+        for (IStrategy strategy : strategies) {
+            // a first round to warm up the JIT
+            new StrategyBenchmark(strategy, 1).run(Math.max(1, count / 10));
+            StrategyBenchmark benchmark = new StrategyBenchmark(strategy, 2);
+            benchmark.run(count);
+            benchmark.log();
+        }
+    }
+}
@@ -144,7 +144,7 @@ public class Tasks {
 
                         LOGGER.info("Hits: {} Inv: {} Rep: {} Restam {} navios.", game.getHits(), game.getInvalidShots(),
                                 game.getRepeatedShots(), game.getRemainingShips());
-                        if (game.getRemainingShips() == 0)
+                        if (game.isOver())
                             LOGGER.info("Maldito sejas, Java Sparrow, eu voltarei, glub glub glub...");
                     }
                     break;
@@ -0,0 +1,154 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Base of the strategies that remember what their shots revealed: the cells
+ * shot, the hits on ships still afloat, the cells known to be empty (misses,
+ * sunk ships and the cells touching them) and how many ships of each kind
+ * are still afloat, along with the {@link Zobrist} hash of that knowledge,
+ * equal to the one kept by the {@link Game} observed. Cells are numbered
+ * row * columns + column and sets of cells are bit masks of {@code long}
+ * words.
+ */
+public abstract class TrackingStrategy implements IStrategy {
+    protected final BoardSpec spec;
+    protected final int cells;
+
+    // ships of each kind still afloat
+    protected final int[] afloat;
+    // cells shot
+    protected final long[] shot;
+    // hits on ships not yet sunk
+    protected final long[] hits;
+    // misses, sunk ships and the cells touching them
+    protected final long[] blocked;
+    // Zobrist hash of the cells shot, hit and sunk
+    protected long knowledgeHash;
+    // source of the random choices of this game, or null to make none
+    protected RandomGenerator random;
+
+    /**
+     * @param spec the board and the fleet composition to play against
+     */
+    protected TrackingStrategy(BoardSpec spec) {
+        if ((long) spec.getRows() * spec.getColumns() > Placements.MAX_CELLS)
+            throw new IllegalArgumentException("ERROR! board " + spec + " is too large to track");
+
+        this.spec = spec;
+        this.cells = spec.getRows() * spec.getColumns();
+        int words = (cells + 63) >>> 6;
+        this.afloat = new int[ShipKind.values().length];
+        this.shot = new long[words];
+        this.hits = new long[words];
+        this.blocked = new long[words];
+        clearKnowledge();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#getSpec()
+     */
+    @Override
+    public BoardSpec getSpec() {
+        return spec;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#reset()
+     */
+    @Override
+    public void reset() {
+        reset(null);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#reset(java.util.random.RandomGenerator)
+     */
+    @Override
+    public void reset(RandomGenerator random) {
+        this.random = random;
+        clearKnowledge();
+    }
+
+    private void clearKnowledge() {
+        for (ShipKind kind : ShipKind.values())
+            afloat[kind.ordinal()] = spec.getCount(kind);
+        Arrays.fill(shot, 0L);
+        Arrays.fill(hits, 0L);
+        Arrays.fill(blocked, 0L);
+        knowledgeHash = 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.IStrategy#observe(int, int, boolean, battleship.IShip)
+     */
+    @Override
+    public void observe(int row, int column, boolean hit, IShip sunk) {
+        if (!spec.isInside(row, column))
+            return;
+        int cell = row * spec.getColumns() + column;
+        if (!isSet(shot, cell))
+            knowledgeHash = Zobrist.shot(knowledgeHash, cell, hit);
+        set(shot, cell);
+        if (!hit)
+            set(blocked, cell);
+        else if (sunk == null)
+            set(hits, cell);
+        else {
+            knowledgeHash = Zobrist.sink(knowledgeHash, spec, sunk);
+            ShipKind kind = ShipKind.ofCategory(sunk.getCategory());
+            if (kind != null && afloat[kind.ordinal()] > 0)
+                afloat[kind.ordinal()]--;
+            for (IPosition pos : sunk.getPositions())
+                for (int r = pos.getRow() - 1; r <= pos.getRow() + 1; r++)
+                    for (int c = pos.getColumn() - 1; c <= pos.getColumn() + 1; c++)
+                        if (spec.isInside(r, c)) {
+                            int around = r * spec.getColumns() + c;
+                            set(blocked, around);
+                            clear(hits, around);
+                        }
+        }
+    }
+
+    /**
+     * @return the {@link Zobrist} hash of what the shots observed revealed
+     */
+    public long getKnowledgeHash() {
+        return knowledgeHash;
+    }
+
+    /**
+     * @return true if no more shots are worth firing at the cell
+     */
+    protected boolean isSettled(int cell) {
+        return isSet(shot, cell) || isSet(blocked, cell);
+    }
+
+    protected IPosition toPosition(int cell) {
+        return Cell.of(cell / spec.getColumns(), cell % spec.getColumns());
+    }
+
+    protected static boolean isSet(long[] mask, int cell) {
+        return (mask[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    protected static void set(long[] mask, int cell) {
+        mask[cell >>> 6] |= 1L << cell;
+    }
+
+    protected static void clear(long[] mask, int cell) {
+        mask[cell >>> 6] &= ~(1L << cell);
+    }
+}
@@ -0,0 +1,473 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws fleets exactly uniformly among all the legal fleets of a board.
+ * <p>
+ * The fleets are counted cell by cell in row-major order, each ship being
+ * laid at the first cell it covers. A ship laid at a cell only covers that
+ * cell and later ones, and may not cover a cell a ship laid before covers or
+ * touches, so the number of ways of completing a partial fleet only depends
+ * on the cell reached, on the ships left and on the profile of the next
+ * cells already covered or touched. A first pass finds the profiles each
+ * cell is reached with; a second, from the last cell back, counts the
+ * completions of each profile for every choice of ships left at once, and
+ * keeps the counts of every fifth cell. The profiles of one cell only read
+ * the counts of the next, so they are counted by fork/join tasks. Sampling then walks the
+ * cells, choosing at each to lay a ship or not with probability
+ * proportional to the number of fleets each choice leads to, recounting the
+ * cells in between from the counts kept for the next.
+ * <p>
+ * The profile is a {@code long} spanning as many cells as the tallest ship
+ * and the row below it, so boards whose rows are too wide for it are
+ * rejected, as are counts that do not fit in a long.
+ */
+public class UniformFleetSampler {
+    // cells from one cell whose counts are kept to the next: about 250 MB and
+    // a quarter of a millisecond per sample on the default board, where one
+    // per row takes half the memory and fifteen times as long
+    private static final int STRIDE = 5;
+    // profiles of a cell counted by one task
+    private static final int PROFILES_PER_TASK = 256;
+
+    private final BoardSpec spec;
+    private final Placements placements;
+    private final int cells;
+    private final int columns;
+    private final ForkJoinPool pool;
+
+    // the ships left, in mixed radix: remaining ships of kind k times weight[k]
+    private final int[] weight;
+    private final int[] radix;
+    private final int fleetIndex;
+    private final int fleetBits;
+    private final int lefts;
+    // per kind, the numbers of ships left holding at least one of the kind
+    private final int[][] withKind;
+
+    // placements of the fleet's kinds laid at each cell, as indices into the
+    // arrays below: anchorStart[c] .. anchorStart[c + 1]
+    private final int[] anchorStart;
+    private final int[] placement;
+    private final int[] kind;
+    // relative to the cell a placement is laid at: the cells covered, and
+    // those covered or touched
+    private final long[] footprint;
+    private final long[] halo;
+
+    // per STRIDE cells, the completions of the profiles reaching the first
+    private Layer[] kept;
+    private long total;
+
+    /**
+     * @param spec the board and the fleet composition
+     * @throws IllegalArgumentException if the rows of the board are too wide
+     *                                  to count its fleets
+     */
+    public UniformFleetSampler(BoardSpec spec) {
+        this(spec, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param spec the board and the fleet composition
+     * @param pool the pool counting the fleets
+     * @throws IllegalArgumentException if the rows of the board are too wide
+     *                                  to count its fleets
+     */
+    public UniformFleetSampler(BoardSpec spec, ForkJoinPool pool) {
+        this.spec = spec;
+        this.pool = pool;
+        this.placements = new Placements(spec);
+        this.cells = spec.getRows() * spec.getColumns();
+        this.columns = spec.getColumns();
+
+        ShipKind[] kinds = ShipKind.values();
+        this.weight = new int[kinds.length];
+        this.radix = new int[kinds.length];
+        int index = 0;
+        int states = 1;
+        for (ShipKind k : kinds) {
+            weight[k.ordinal()] = states;
+            radix[k.ordinal()] = spec.getCount(k) + 1;
+            index += spec.getCount(k) * states;
+            states = Math.multiplyExact(states, spec.getCount(k) + 1);
+        }
+        this.fleetIndex = index;
+        this.lefts = states;
+        this.fleetBits = 32 - Integer.numberOfLeadingZeros(states - 1);
+        this.withKind = new int[kinds.length][];
+        for (ShipKind k : kinds) {
+            int[] with = new int[states];
+            int n = 0;
+            for (int left = 0; left < states; left++)
+                if (left / weight[k.ordinal()] % radix[k.ordinal()] > 0)
+                    with[n++] = left;
+            withKind[k.ordinal()] = Arrays.copyOf(with, n);
+        }
+
+        int size = 0;
+        for (ShipKind k : kinds)
+            if (spec.getCount(k) > 0)
+                size += placements.end(k) - placements.first(k);
+        this.placement = new int[size];
+        this.kind = new int[size];
+        this.footprint = new long[size];
+        this.halo = new long[size];
+        this.anchorStart = new int[cells + 1];
+        int span = 0;
+        int n = 0;
+        // placements in order of the cell they are laid at
+        for (int anchor = 0; anchor < cells; anchor++) {
+            anchorStart[anchor] = n;
+            for (ShipKind k : kinds)
+                for (int p = placements.first(k); spec.getCount(k) > 0 && p < placements.end(k); p++)
+                    if (firstCell(p) == anchor) {
+                        placement[n] = p;
+                        kind[n] = k.ordinal();
+                        span = Math.max(span, describe(n, anchor));
+                        n++;
+                    }
+        }
+        anchorStart[cells] = n;
+        if (span + fleetBits >= Long.SIZE - 1)
+            throw new IllegalArgumentException("ERROR! rows of a " + spec + " board are too wide to count its fleets");
+
+        this.total = -1;
+    }
+
+    private int firstCell(int p) {
+        int first = cells;
+        for (int i = 0; i < placements.cellCount(p); i++)
+            first = Math.min(first, placements.cell(p, i));
+        return first;
+    }
+
+    /**
+     * Fills the masks of placement n, laid at the given cell
+     *
+     * @return the number of cells from the anchor to the last one touched
+     */
+    private int describe(int n, int anchor) {
+        int p = placement[n];
+        int span = 0;
+        for (int i = 0; i < placements.cellCount(p); i++) {
+            int cell = placements.cell(p, i);
+            footprint[n] |= 1L << (cell - anchor);
+            int row = cell / columns;
+            int column = cell % columns;
+            for (int r = row - 1; r <= row + 1; r++)
+                for (int c = column - 1; c <= column + 1; c++) {
+                    int offset = r * columns + c - anchor;
+                    if (!spec.isInside(r, c) || offset < 0)
+                        continue;
+                    span = Math.max(span, offset + 1);
+                    if (offset < Long.SIZE)
+                        halo[n] |= 1L << offset;
+                }
+        }
+        return span;
+    }
+
+    /**
+     * @return the number of distinct legal fleets of the board
+     * @throws ArithmeticException if the number does not fit in a long
+     */
+    public synchronized long count() {
+        if (total < 0) {
+            kept = countKept(reachable());
+            total = kept[0].count(0L, fleetIndex);
+        }
+        return total;
+    }
+
+    /**
+     * @param random source of randomness
+     * @return a fleet drawn uniformly among the legal fleets of the board
+     * @throws IllegalStateException if the board has no legal fleet
+     */
+    public Fleet sample(RandomGenerator random) {
+        long fleets = count();
+        if (fleets == 0)
+            throw new IllegalStateException("ERROR! no room for the fleet on a " + spec + " board");
+
+        long target = random.nextLong(fleets);
+        Fleet fleet = new Fleet(spec);
+        Recount recount = new Recount();
+        long profile = 0;
+        int left = fleetIndex;
+        for (int cell = 0; left != 0; cell++) {
+            long completions = recount.count(cell + 1, profile >>> 1, left);
+            if (target < completions) {
+                profile >>>= 1;
+                continue;
+            }
+            target -= completions;
+            for (int n = anchorStart[cell]; n < anchorStart[cell + 1]; n++) {
+                if (!fits(n, profile, left))
+                    continue;
+                completions = recount.count(cell + 1, (profile | halo[n]) >>> 1, left - weight[kind[n]]);
+                if (target < completions) {
+                    fleet.addShip(placements.build(placement[n]));
+                    profile = (profile | halo[n]) >>> 1;
+                    left -= weight[kind[n]];
+                    break;
+                }
+                target -= completions;
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * @return true if placement n may be laid given the profile of covered or
+     * touched cells and the ships left
+     */
+    private boolean fits(int n, long profile, int left) {
+        return (footprint[n] & profile) == 0 && left / weight[kind[n]] % radix[kind[n]] > 0;
+    }
+
+    /**
+     * First pass: the profiles reaching each cell with some ships left; once
+     * the fleet is complete the profile no longer matters
+     *
+     * @return per cell, the profiles reaching it
+     */
+    private long[][] reachable() {
+        int words = (lefts + 63) >>> 6;
+        long[][] profiles = new long[cells][];
+        Layer layer = new Layer(words);
+        long[] start = new long[words];
+        start[fleetIndex >>> 6] |= 1L << fleetIndex;
+        layer.add(0L, start, 0);
+
+        long[] placed = new long[words];
+        for (int cell = 0; cell < cells; cell++) {
+            profiles[cell] = Arrays.copyOf(layer.profiles, layer.size);
+            Layer next = new Layer(words);
+            for (int s = 0; s < layer.size; s++) {
+                long profile = layer.profiles[s];
+                int at = s * words;
+                if (cell + 1 < cells)
+                    next.add(profile >>> 1, layer.values, at);
+                if ((profile & 1) != 0)
+                    continue;
+                for (int n = anchorStart[cell]; n < anchorStart[cell + 1]; n++) {
+                    if ((footprint[n] & profile) != 0)
+                        continue;
+                    // the ships left after laying one of the kind
+                    Arrays.fill(placed, 0L);
+                    boolean any = false;
+                    for (int left : withKind[kind[n]]) {
+                        int after = left - weight[kind[n]];
+                        if (after != 0 && (layer.values[at + (left >>> 6)] & (1L << left)) != 0) {
+                            placed[after >>> 6] |= 1L << after;
+                            any = true;
+                        }
+                    }
+                    if (any && cell + 1 < cells)
+                        next.add((profile | halo[n]) >>> 1, placed, 0);
+                }
+            }
+            layer = next;
+        }
+        return profiles;
+    }
+
+    /**
+     * Second pass: the completions of every reachable profile, from the last
+     * cell back, for every number of ships left
+     *
+     * @return the completions of the profiles reaching every STRIDE-th cell
+     */
+    private Layer[] countKept(long[][] profiles) {
+        Layer[] kept = new Layer[(cells + STRIDE - 1) / STRIDE];
+        // past the last cell, only a complete fleet has a completion
+        Layer after = new Layer(lefts);
+        for (int cell = cells - 1; cell >= 0; cell--) {
+            Layer layer = new Layer(lefts, profiles[cell]);
+            pool.invoke(new CompleteTask(cell, layer, after, 0, profiles[cell].length));
+            if (cell % STRIDE == 0)
+                kept[cell / STRIDE] = layer;
+            after = layer;
+        }
+        return kept;
+    }
+
+    /**
+     * Counts the completions of the profiles first to end of a cell from
+     * those of the next cell
+     */
+    private void completeRows(int cell, Layer layer, Layer after, int first, int end) {
+        for (int s = first; s < end; s++) {
+            long profile = layer.profiles[s];
+            int row = s * lefts;
+            addShifted(layer.values, row, after, profile >>> 1, -1);
+            if ((profile & 1) == 0)
+                for (int n = anchorStart[cell]; n < anchorStart[cell + 1]; n++)
+                    if ((footprint[n] & profile) == 0)
+                        addShifted(layer.values, row, after, (profile | halo[n]) >>> 1, kind[n]);
+            layer.values[row] = 1;
+        }
+    }
+
+    /*
+     * Adds to the row at the given offset the completions of a profile of
+     * the next cell, after laying a ship of the given kind, or none if -1.
+     * Laying the last ship completes the fleet whatever the profile.
+     */
+    private void addShifted(long[] values, int row, Layer after, long profile, int laid) {
+        int at = after.find(profile);
+        if (laid < 0) {
+            if (at >= 0)
+                for (int left = 1; left < lefts; left++)
+                    values[row + left] = Math.addExact(values[row + left], after.values[at + left]);
+            return;
+        }
+        int shift = weight[laid];
+        for (int left : withKind[laid])
+            if (left == shift)
+                values[row + left] = Math.addExact(values[row + left], 1);
+            else if (at >= 0)
+                values[row + left] = Math.addExact(values[row + left], after.values[at + left - shift]);
+    }
+
+    /**
+     * The profiles of a cell from first to end, split in halves down to
+     * {@link #PROFILES_PER_TASK}; each task writes its own rows only
+     */
+    private class CompleteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int cell;
+        private final Layer layer;
+        private final Layer after;
+        private final int first;
+        private final int end;
+
+        CompleteTask(int cell, Layer layer, Layer after, int first, int end) {
+            this.cell = cell;
+            this.layer = layer;
+            this.after = after;
+            this.first = first;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - first <= PROFILES_PER_TASK) {
+                completeRows(cell, layer, after, first, end);
+                return;
+            }
+            int middle = (first + end) >>> 1;
+            invokeAll(new CompleteTask(cell, layer, after, first, middle),
+                    new CompleteTask(cell, layer, after, middle, end));
+        }
+    }
+
+    /*
+     * The profiles of a cell with, for each, a row of values: a bit set of
+     * the ships left in the first pass, the completions per ships left in
+     * the second.
+     */
+    private static final class Layer {
+        private final int width;
+        private final LongIntHashMap index = new LongIntHashMap();
+        private long[] profiles = new long[16];
+        private long[] values;
+        private int size;
+
+        Layer(int width) {
+            this.width = width;
+            this.values = new long[16 * width];
+        }
+
+        /**
+         * A layer of the given distinct profiles, with rows of zeros
+         */
+        Layer(int width, long[] profiles) {
+            this.width = width;
+            this.profiles = profiles;
+            this.values = new long[Math.multiplyExact(profiles.length, width)];
+            this.size = profiles.length;
+            for (int s = 0; s < size; s++)
+                index.put(profiles[s], s + 1);
+        }
+
+        /**
+         * ORs a row of values into those of a profile
+         */
+        void add(long profile, long[] row, int from) {
+            int slot = index.get(profile) - 1;
+            if (slot < 0) {
+                if (size == profiles.length) {
+                    profiles = Arrays.copyOf(profiles, size * 2);
+                    values = Arrays.copyOf(values, size * 2 * width);
+                }
+                slot = size++;
+                profiles[slot] = profile;
+                index.put(profile, size);
+            }
+            int at = slot * width;
+            for (int i = 0; i < width; i++)
+                values[at + i] |= row[from + i];
+        }
+
+        /**
+         * @return the offset of the row of the profile, or -1 if it has none
+         */
+        int find(long profile) {
+            int slot = index.get(profile);
+            return slot == 0 ? -1 : (slot - 1) * width;
+        }
+
+        long count(long profile, int left) {
+            int at = find(profile);
+            return at < 0 ? 0 : values[at + left];
+        }
+    }
+
+    /*
+     * Counts the completions between kept cells from the counts of the next
+     * kept cell, remembering those met by one sample.
+     */
+    private final class Recount {
+        // per cell, the state to 1 + the index of its count
+        private final LongIntHashMap[] memo = new LongIntHashMap[cells];
+        private long[] counts = new long[64];
+        private int size;
+
+        long count(int cell, long profile, int left) {
+            if (left == 0)
+                return 1;
+            if (cell == cells)
+                return 0;
+            if (cell % STRIDE == 0)
+                return kept[cell / STRIDE].count(profile, left);
+
+            if (memo[cell] == null)
+                memo[cell] = new LongIntHashMap();
+            long key = profile << fleetBits | left;
+            int known = memo[cell].get(key);
+            if (known != 0)
+                return counts[known - 1];
+
+            long sum = count(cell + 1, profile >>> 1, left);
+            if ((profile & 1) == 0)
+                for (int n = anchorStart[cell]; n < anchorStart[cell + 1]; n++)
+                    if (fits(n, profile, left))
+                        sum = Math.addExact(sum, count(cell + 1, (profile | halo[n]) >>> 1, left - weight[kind[n]]));
+            if (size == counts.length)
+                counts = Arrays.copyOf(counts, size * 2);
+            counts[size++] = sum;
+            memo[cell].put(key, size);
+            return sum;
+        }
+    }
+}
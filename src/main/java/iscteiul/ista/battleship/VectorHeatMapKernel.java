@@ -0,0 +1,80 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The heat map kernel with the JDK Vector API, trying as many origins of a
+ * row at once as the CPU has int lanes. The board is unpacked into rows of
+ * ints, -1 for an open cell and 0 for a blocked one, padded by a vector's
+ * width so that loads past the last origin stay inside the row; a placement
+ * fits where the AND of its cells is -1, and its weight is then added to
+ * each of its cells with masked vector adds.
+ * <p>
+ * Needs {@code --add-modules jdk.incubator.vector}; use
+ * {@link HeatMapKernel#create(BoardSpec)} to fall back to the scalar kernel
+ * otherwise.
+ */
+public class VectorHeatMapKernel extends HeatMapKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final int stride;
+    private final int[] open;
+    private final int[] sums;
+
+    /**
+     * @param spec the board
+     */
+    public VectorHeatMapKernel(BoardSpec spec) {
+        super(spec);
+        this.stride = columns + SPECIES.length();
+        this.open = new int[rows * stride];
+        this.sums = new int[rows * stride];
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see battleship.HeatMapKernel#compute(long[], int[], int[])
+     */
+    @Override
+    public void compute(long[] blocked, int[] weights, int[] heat) {
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < columns; c++) {
+                int cell = r * columns + c;
+                open[r * stride + c] = (blocked[cell >>> 6] & (1L << cell)) == 0 ? -1 : 0;
+            }
+        Arrays.fill(sums, 0);
+
+        int lanes = SPECIES.length();
+        for (int s = 0; s < shapeKind.length; s++) {
+            int weight = weights[shapeKind[s]];
+            int origins = columns - shapeWidth[s] + 1;
+            if (weight == 0 || origins <= 0)
+                continue;
+            int[] dr = shapeRows[s];
+            int[] dc = shapeColumns[s];
+            IntVector base = IntVector.broadcast(SPECIES, weight);
+            for (int r = 0; r + shapeHeight[s] <= rows; r++)
+                for (int c = 0; c < origins; c += lanes) {
+                    VectorMask<Integer> inRange = SPECIES.indexInRange(c, origins);
+                    IntVector fit = base;
+                    for (int i = 0; i < dr.length; i++)
+                        fit = fit.and(IntVector.fromArray(SPECIES, open, (r + dr[i]) * stride + c + dc[i]));
+                    for (int i = 0; i < dr.length; i++) {
+                        int at = (r + dr[i]) * stride + c + dc[i];
+                        IntVector.fromArray(SPECIES, sums, at).add(fit, inRange).intoArray(sums, at);
+                    }
+                }
+        }
+
+        for (int r = 0; r < rows; r++)
+            System.arraycopy(sums, r * stride, heat, r * columns, columns);
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package iscteiul.ista.battleship;
+
+/**
+ * Zobrist keys of the public knowledge of a game: each cell is unknown,
+ * missed, hit or part of a sunk ship, and the hash of a state is the XOR of
+ * the keys of its known cells, the empty board hashing to 0. Since the cells
+ * of a sunk ship tell its kind, this covers which ships were sunk too.
+ * <p>
+ * Keys are a pure function of the cell and its state, derived with
+ * {@link RunSeeds#derive(long, long)}, so every game and every strategy
+ * tracking the same knowledge reaches the same hash without sharing a table.
+ */
+public final class Zobrist {
+    public static final int MISS = 0;
+    public static final int HIT = 1;
+    public static final int SUNK = 2;
+
+    private static final int STATES = 3;
+    private static final long SEED = 0x5A0B_2157_B47E_5B1FL;
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the key of the given cell, numbered row * columns + column, in
+     * the given state
+     */
+    public static long key(long cell, int state) {
+        assert cell >= 0 && state >= MISS && state <= SUNK;
+        return RunSeeds.derive(SEED, cell * STATES + state);
+    }
+
+    /**
+     * @return the hash after a first shot at the cell
+     */
+    public static long shot(long hash, long cell, boolean hit) {
+        return hash ^ key(cell, hit ? HIT : MISS);
+    }
+
+    /**
+     * @return the hash after the given ship, whose cells were all hit, sinks
+     */
+    public static long sink(long hash, BoardSpec spec, IShip ship) {
+        for (IPosition pos : ship.getPositions()) {
+            long cell = (long) pos.getRow() * spec.getColumns() + pos.getColumn();
+            hash ^= key(cell, HIT) ^ key(cell, SUNK);
+        }
+        return hash;
+    }
+}
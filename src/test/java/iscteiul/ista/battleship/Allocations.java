@@ -0,0 +1,26 @@
+package iscteiul.ista.battleship;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Counts the bytes the calling thread allocates, skipping the test on JVMs
+ * that cannot count them
+ */
+final class Allocations {
+
+    private Allocations() {
+    }
+
+    static long during(Runnable work) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean ? bean : null;
+        assumeTrue(threads != null && threads.isThreadAllocatedMemorySupported());
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        work.run();
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+}
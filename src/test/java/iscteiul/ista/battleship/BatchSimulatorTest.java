@@ -0,0 +1,59 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSimulatorTest {
+
+    @Test
+    void playsEveryGameToTheEnd() {
+        BoardSpec spec = BoardSpec.DEFAULT;
+        SimulationStats stats = new BatchSimulator(spec, () -> new HuntTargetStrategy(spec), 5).run(2_000);
+
+        assertEquals(2_000, stats.getGames());
+        assertEquals(0, stats.getUnfinished());
+        assertEquals(2_000, stats.getShots().getCount());
+        // every game hits each of the 25 cells of the fleet exactly once
+        assertEquals(25, stats.getHits().percentile(0));
+        assertEquals(25, stats.getHits().getMax());
+        assertEquals(0, stats.getRepeated().getMax());
+        assertEquals(0, stats.getInvalid().getMax());
+        assertTrue(stats.getShots().percentile(0.5) >= 25);
+        assertEquals(4 * 2_000, stats.getSinkOrder(ShipKind.BARGE).getCount());
+        assertEquals(2_000, stats.getSinkOrder(ShipKind.GALLEON).getCount());
+    }
+
+    @Test
+    void resultsDoNotDependOnTheNumberOfWorkers() {
+        BoardSpec spec = BoardSpec.DEFAULT;
+        SimulationStats one = new BatchSimulator(spec, () -> new HuntTargetStrategy(spec), 9, new ForkJoinPool(1))
+                .run(1_000);
+        SimulationStats many = new BatchSimulator(spec, () -> new HuntTargetStrategy(spec), 9, new ForkJoinPool(4))
+                .run(1_000);
+
+        for (int v = 0; v <= 100; v++)
+            assertEquals(one.getShots().getCount(v), many.getShots().getCount(v));
+    }
+
+    @Test
+    void anyGameReplaysAlone() {
+        BoardSpec spec = BoardSpec.DEFAULT;
+        Placements placements = new Placements(spec);
+        BatchSimulator simulator = new BatchSimulator(spec, () -> new DensityTargeting(placements), 17,
+                new ForkJoinPool(4));
+        SimulationStats batch = simulator.run(600);
+
+        Histogram replayed = new Histogram(100);
+        for (long g = 0; g < 600; g++)
+            replayed.record(simulator.replay(g, new DensityTargeting(placements)).getShots().size());
+        for (int v = 0; v <= 100; v++)
+            assertEquals(batch.getShots().getCount(v), replayed.getCount(v));
+
+        Game first = simulator.replay(321, new DensityTargeting(placements));
+        Game again = simulator.replay(321, new DensityTargeting(placements));
+        assertEquals(first.getShots(), again.getShots());
+    }
+}
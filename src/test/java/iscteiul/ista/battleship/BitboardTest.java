@@ -0,0 +1,50 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitboardTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,0", "0,9", "6,3", "9,9"
+    })
+    void setAndClearSingleCell(int r, int c) {
+        Bitboard board = new Bitboard(10, 10);
+
+        board.set(r, c);
+        assertTrue(board.get(r, c));
+
+        board.clear(r, c);
+        assertFalse(board.get(r, c));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "-1,0", "0,-1", "10,0", "0,10"
+    })
+    void cellsOutsideBoardAreIgnored(int r, int c) {
+        Bitboard board = new Bitboard(10, 10);
+
+        board.set(r, c);
+
+        assertFalse(board.isInside(r, c));
+        assertFalse(board.get(r, c));
+    }
+
+    @Test
+    void cellsSpanningSeveralWordsAreIndependent() {
+        Bitboard board = new Bitboard(10, 10);
+        board.set(6, 3);   // cell 63, last bit of the first word
+        board.set(6, 4);   // cell 64, first bit of the second word
+
+        assertTrue(board.get(6, 3));
+        assertTrue(board.get(6, 4));
+        board.clear(6, 3);
+        assertFalse(board.get(6, 3));
+        assertTrue(board.get(6, 4));
+    }
+}
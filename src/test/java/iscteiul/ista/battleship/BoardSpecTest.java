@@ -0,0 +1,61 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardSpecTest {
+
+    @Test
+    void defaultBoardHoldsTheStandardFleet() {
+        BoardSpec spec = BoardSpec.DEFAULT;
+
+        assertEquals(10, spec.getRows());
+        assertEquals(10, spec.getColumns());
+        assertEquals(11, spec.getFleetSize());
+        assertEquals(4, spec.getCount(ShipKind.BARGE));
+        assertEquals(1, spec.getCount(ShipKind.GALLEON));
+        assertTrue(spec.isDense());
+        assertInstanceOf(Bitboard.class, spec.newCellSet());
+    }
+
+    @Test
+    void compositionIsCopied() {
+        BoardSpec spec = new BoardSpec(6, 8, Map.of(ShipKind.CARAVEL, 2, ShipKind.BARGE, 1));
+
+        assertEquals(3, spec.getFleetSize());
+        assertEquals(0, spec.getCount(ShipKind.GALLEON));
+        assertTrue(spec.isInside(5, 7));
+        assertFalse(spec.isInside(7, 5));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,10", "10,0", "-3,4"
+    })
+    void invalidSizesAreRejected(int rows, int columns) {
+        assertThrows(IllegalArgumentException.class, () -> new BoardSpec(rows, columns));
+    }
+
+    @Test
+    void largeBoardsAreSparse() {
+        BoardSpec spec = new BoardSpec(10_000, 10_000);
+        assertFalse(spec.isDense());
+
+        CellMap map = spec.newCellMap();
+        map.put(9_999, 42, 7);
+        assertEquals(7, map.get(9_999, 42));
+        assertEquals(0, map.get(42, 9_999));
+        map.put(9_999, 42, 0);
+        assertEquals(0, map.get(9_999, 42));
+
+        CellSet set = spec.newCellSet();
+        set.set(9_999, 42);
+        assertTrue(set.get(9_999, 42));
+        assertFalse(set.get(42, 9_999));
+    }
+}
@@ -0,0 +1,62 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,0", "9,9", "-2,3", "5,-4"
+    })
+    void cellsNearTheBoardAreInterned(int r, int c) {
+        assertSame(Cell.of(r, c), Cell.of(r, c));
+        assertEquals(r, Cell.of(r, c).getRow());
+        assertEquals(c, Cell.of(r, c).getColumn());
+    }
+
+    @Test
+    void cellsFarFromTheBoardAreStillEqual() {
+        assertEquals(Cell.of(1000, 2000), Cell.of(1000, 2000));
+        assertEquals(Cell.of(-50, 7), Cell.of(-50, 7));
+    }
+
+    @Test
+    void cellsAndPositionsAgreeOnEqualsAndHashCode() {
+        Position p = new Position(3, 4);
+        p.shoot();
+        p.occupy();
+
+        assertEquals(Cell.of(3, 4), p);
+        assertEquals(p, Cell.of(3, 4));
+        assertEquals(Cell.of(3, 4).hashCode(), p.hashCode());
+
+        Set<IPosition> set = new HashSet<>();
+        set.add(Cell.of(3, 4));
+        assertTrue(set.contains(p));
+    }
+
+    @Test
+    void cellsCarryNoState() {
+        Cell cell = Cell.of(2, 2);
+
+        assertFalse(cell.isHit());
+        assertFalse(cell.isOccupied());
+        assertThrows(UnsupportedOperationException.class, cell::shoot);
+        assertThrows(UnsupportedOperationException.class, cell::occupy);
+    }
+
+    @Test
+    void shipsAreBuiltFromInternedCells() {
+        Galleon g = new Galleon(Compass.SOUTH, new Position(4, 4));
+
+        for (IPosition p : g.getPositions())
+            assertSame(Cell.of(p.getRow(), p.getColumn()), p);
+    }
+}
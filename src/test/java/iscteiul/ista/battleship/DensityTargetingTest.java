@@ -0,0 +1,134 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DensityTargetingTest {
+
+    @Test
+    void sinksWholeFleetsWithoutWastingShots() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.DEFAULT, 11);
+        DensityTargeting strategy = new DensityTargeting(BoardSpec.DEFAULT);
+
+        int games = 100;
+        int total = 0;
+        for (int i = 0; i < games; i++) {
+            Game game = new Game(generator.generate());
+            strategy.reset();
+            int shots = strategy.playOut(game);
+
+            assertTrue(game.isOver());
+            assertEquals(0, game.getInvalidShots());
+            assertEquals(0, game.getRepeatedShots());
+            assertEquals(shots, game.getShots().size());
+            total += shots;
+        }
+        // shooting blindly takes more than 90 shots on average
+        assertTrue(total / games < 70, "average of " + total / games + " shots");
+    }
+
+    @Test
+    void densityFollowsTheKnowledge() {
+        BoardSpec spec = new BoardSpec(3, 3, Map.of(ShipKind.CARAVEL, 1));
+        DensityTargeting strategy = new DensityTargeting(spec);
+
+        // the centre is covered by the most caravels
+        assertEquals(Cell.of(1, 1), strategy.nextShot());
+        assertEquals(4, strategy.getDensity(1, 1));
+        assertEquals(3, strategy.getDensity(0, 1));
+        assertEquals(2, strategy.getDensity(0, 0));
+
+        strategy.observe(1, 1, false, null);
+        strategy.nextShot();
+        assertEquals(0, strategy.getDensity(1, 1));
+        assertEquals(0, strategy.probability(1, 1));
+        assertEquals(2, strategy.getDensity(0, 1));
+
+        // a hit at a corner: the two caravels through it outweigh the rest,
+        // and caravels touching it without covering it are ruled out
+        strategy.observe(0, 0, true, null);
+        IPosition next = strategy.nextShot();
+        assertTrue(next.equals(Cell.of(0, 1)) || next.equals(Cell.of(1, 0)), next.toString());
+        assertEquals(strategy.probability(0, 1), strategy.probability(1, 0));
+        assertTrue(strategy.probability(0, 1) > 0.45);
+        assertEquals(1, strategy.getDensity(2, 0));
+        assertEquals(1, strategy.getDensity(0, 2));
+    }
+
+    @Test
+    void sunkShipsBlockTheirSurroundings() {
+        BoardSpec spec = new BoardSpec(1, 5, Map.of(ShipKind.BARGE, 2));
+        DensityTargeting strategy = new DensityTargeting(spec);
+
+        strategy.observe(0, 0, true, new Barge(Compass.NORTH, new Position(0, 0)));
+        strategy.nextShot();
+        assertEquals(0, strategy.getDensity(0, 1));
+        assertEquals(1, strategy.getDensity(0, 2));
+    }
+
+    @Test
+    void tracksTheKnowledgeHashOfTheGame() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.DEFAULT, 5);
+        DensityTargeting strategy = new DensityTargeting(BoardSpec.DEFAULT);
+        Game game = new Game(generator.generate());
+
+        while (!game.isOver()) {
+            IPosition shot = strategy.nextShot();
+            int hits = game.getHits();
+            IShip sunk = game.fire(shot);
+            strategy.observe(shot.getRow(), shot.getColumn(), game.getHits() > hits, sunk);
+            assertEquals(game.getKnowledgeHash(), strategy.getKnowledgeHash());
+        }
+        strategy.reset();
+        assertEquals(0, strategy.getKnowledgeHash());
+    }
+
+    @Test
+    void cachedDensitiesPlayTheSameGames() {
+        Placements placements = new Placements(BoardSpec.DEFAULT);
+        ProbabilityCache cache = new ProbabilityCache(BoardSpec.DEFAULT, 1_000);
+        DensityTargeting plain = new DensityTargeting(placements);
+        DensityTargeting cached = new DensityTargeting(placements, null, cache);
+        // the same fleets for both
+        FleetGenerator first = new FleetGenerator(BoardSpec.DEFAULT, 3);
+        FleetGenerator second = new FleetGenerator(BoardSpec.DEFAULT, 3);
+
+        for (int i = 0; i < 20; i++) {
+            plain.reset();
+            cached.reset();
+            Game game = new Game(first.generate());
+            Game replay = new Game(second.generate());
+            assertEquals(plain.playOut(game), cached.playOut(replay));
+            assertEquals(game.getKnowledgeHash(), replay.getKnowledgeHash());
+        }
+        // every game but the first opens on a cached empty board
+        assertTrue(cache.getHits() >= 19, cache.getHits() + " hits");
+        assertTrue(cache.size() <= 20 * (DensityTargeting.CACHED_SHOTS + 1));
+    }
+
+    @Test
+    void rejectsTheCacheOfAnotherBoard() {
+        Placements placements = new Placements(BoardSpec.DEFAULT);
+        ProbabilityCache cache = new ProbabilityCache(new BoardSpec(8, 8), 10);
+        assertThrows(IllegalArgumentException.class, () -> new DensityTargeting(placements, null, cache));
+    }
+
+    @Test
+    void choosingAShotAllocatesNothing() {
+        DensityTargeting strategy = new DensityTargeting(BoardSpec.DEFAULT);
+
+        // the vector kernel allocates until the JIT compiles it
+        for (int i = 0; i < 50_000; i++)
+            strategy.nextShot();
+        long bytes = Allocations.during(() -> {
+            for (int i = 0; i < 1_000; i++)
+                strategy.nextShot();
+        });
+
+        // leave room for the allocation counter itself
+        assertTrue(bytes < 1_000, bytes + " bytes");
+    }
+}
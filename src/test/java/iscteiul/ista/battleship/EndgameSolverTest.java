@@ -0,0 +1,137 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+
+    private static void set(long[] mask, BoardSpec spec, int row, int column) {
+        int cell = row * spec.getColumns() + column;
+        mask[cell >>> 6] |= 1L << cell;
+    }
+
+    private static int[] afloat(ShipKind kind, int count) {
+        int[] afloat = new int[ShipKind.values().length];
+        afloat[kind.ordinal()] = count;
+        return afloat;
+    }
+
+    @Test
+    void finishesAWoundedCaravel() {
+        BoardSpec spec = new BoardSpec(1, 5, Map.of(ShipKind.CARAVEL, 1));
+        EndgameSolver solver = new EndgameSolver(new Placements(spec));
+        long[] shot = new long[1];
+        long[] hits = new long[1];
+        set(shot, spec, 0, 2);
+        set(hits, spec, 0, 2);
+
+        int cell = solver.solve(shot, hits, new long[1], afloat(ShipKind.CARAVEL, 1));
+        assertTrue(cell == 1 || cell == 3, "cell " + cell);
+        // half the time the first shot sinks it, otherwise the second does
+        assertEquals(1.5, solver.getExpectedShots(), 1e-9);
+    }
+
+    @Test
+    void usesTheMissesAndTheBlockedCells() {
+        BoardSpec spec = new BoardSpec(3, 3, Map.of(ShipKind.CARRACK, 1));
+        EndgameSolver solver = new EndgameSolver(new Placements(spec));
+        long[] blocked = new long[1];
+        for (int c = 0; c < 3; c++) {
+            set(blocked, spec, 0, c);
+            set(blocked, spec, 2, c);
+        }
+
+        // only the middle row is left: three sure shots
+        int cell = solver.solve(blocked.clone(), new long[1], blocked, afloat(ShipKind.CARRACK, 1));
+        assertTrue(cell >= 3 && cell <= 5);
+        assertEquals(3.0, solver.getExpectedShots(), 1e-9);
+    }
+
+    @Test
+    void givesUpWhenTheBudgetRunsOut() {
+        BoardSpec spec = new BoardSpec(2, 4, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 1));
+        Placements placements = new Placements(spec);
+        int[] afloat = afloat(ShipKind.CARAVEL, 1);
+        afloat[ShipKind.BARGE.ordinal()] = 1;
+
+        EndgameSolver small = new EndgameSolver(placements, 16, 10);
+        assertEquals(-1, small.solve(new long[1], new long[1], new long[1], afloat));
+        assertTrue(Double.isNaN(small.getExpectedShots()));
+
+        // a budget of nodes, not of time, gives the same answer every time
+        EndgameSolver solver = new EndgameSolver(placements);
+        int cell = solver.solve(new long[1], new long[1], new long[1], afloat);
+        assertTrue(cell >= 0);
+        for (int i = 0; i < 10; i++)
+            assertEquals(cell, solver.solve(new long[1], new long[1], new long[1], afloat));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(placements, 16, 0));
+    }
+
+    @Test
+    void givesUpOnOpenBoards() {
+        BoardSpec spec = BoardSpec.DEFAULT;
+        EndgameSolver solver = new EndgameSolver(new Placements(spec));
+        int[] afloat = new int[ShipKind.values().length];
+        for (ShipKind kind : ShipKind.values())
+            afloat[kind.ordinal()] = spec.getCount(kind);
+
+        assertEquals(-1, solver.solve(new long[2], new long[2], new long[2], afloat));
+        assertTrue(Double.isNaN(solver.getExpectedShots()));
+    }
+
+    @Test
+    void beatsGreedyTargetingWhenLayoutsAreEquallyLikely() {
+        BoardSpec spec = new BoardSpec(2, 4, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 1));
+        Placements placements = new Placements(spec);
+        UniformFleetSampler sampler = new UniformFleetSampler(spec);
+        EndgameSolver solver = new EndgameSolver(placements, 16, Long.MAX_VALUE);
+        DensityTargeting greedy = new DensityTargeting(placements);
+        DensityTargeting solved = new DensityTargeting(placements, solver);
+
+        int[] afloat = afloat(ShipKind.CARAVEL, 1);
+        afloat[ShipKind.BARGE.ordinal()] = 1;
+        solver.solve(new long[1], new long[1], new long[1], afloat);
+        double expected = solver.getExpectedShots();
+
+        int games = 20_000;
+        long greedyShots = 0;
+        long solvedShots = 0;
+        // the same fleets for both, drawn twice since games sink them
+        SplittableRandom forGreedy = new SplittableRandom(8);
+        SplittableRandom forSolved = new SplittableRandom(8);
+        for (int g = 0; g < games; g++) {
+            greedy.reset();
+            greedyShots += greedy.playOut(new Game(sampler.sample(forGreedy)));
+            solved.reset();
+            solvedShots += solved.playOut(new Game(sampler.sample(forSolved)));
+        }
+
+        assertEquals(expected, (double) solvedShots / games, 0.05);
+        assertTrue(solvedShots < greedyShots, solvedShots + " vs " + greedyShots);
+    }
+
+    @Test
+    void solvingAllocatesNothing() {
+        BoardSpec spec = new BoardSpec(2, 4, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 1));
+        EndgameSolver solver = new EndgameSolver(new Placements(spec), 12, Long.MAX_VALUE);
+        long[] shot = new long[1];
+        long[] hits = new long[1];
+        int[] afloat = new int[ShipKind.values().length];
+        afloat[ShipKind.CARAVEL.ordinal()] = 1;
+        afloat[ShipKind.BARGE.ordinal()] = 1;
+
+        for (int i = 0; i < 20; i++)
+            solver.solve(shot, hits, new long[1], afloat);
+        long[] blocked = new long[1];
+        long bytes = Allocations.during(() -> {
+            for (int i = 0; i < 20; i++)
+                assertTrue(solver.solve(shot, hits, blocked, afloat) >= 0);
+        });
+
+        assertTrue(bytes < 1_000, bytes + " bytes");
+    }
+}
@@ -0,0 +1,92 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetEnumeratorTest {
+
+    private String layout(Fleet fleet) {
+        TreeSet<String> ships = new TreeSet<>();
+        for (IShip s : fleet.getShips()) {
+            TreeSet<String> cells = new TreeSet<>();
+            for (IPosition p : s.getPositions())
+                cells.add(p.getRow() + "," + p.getColumn());
+            ships.add(s.getCategory() + cells);
+        }
+        return ships.toString();
+    }
+
+    @Test
+    void countAgreesWithSampler() {
+        BoardSpec spec = new BoardSpec(6, 6, Map.of(ShipKind.GALLEON, 1, ShipKind.CARRACK, 1, ShipKind.BARGE, 2));
+        FleetEnumerator enumerator = new FleetEnumerator(spec);
+
+        assertEquals(new UniformFleetSampler(spec).count(), enumerator.count());
+        assertEquals(enumerator.getPartitions(), enumerator.getPartitionsDone());
+        assertEquals(enumerator.count(), enumerator.getFleetsEnumerated());
+    }
+
+    @Test
+    void smallBoards() {
+        assertEquals(1, new FleetEnumerator(new BoardSpec(1, 3, Map.of(ShipKind.BARGE, 2))).count());
+        assertEquals(0, new FleetEnumerator(new BoardSpec(1, 2, Map.of(ShipKind.BARGE, 2))).count());
+        assertEquals(1, new FleetEnumerator(new BoardSpec(2, 2, Map.of())).count());
+    }
+
+    @Test
+    void writtenFleetsReadBackDistinctAndLegal() throws IOException {
+        BoardSpec spec = new BoardSpec(5, 5, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 2));
+        FleetEnumerator enumerator = new FleetEnumerator(spec);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = enumerator.write(out);
+        assertEquals(enumerator.count(), written);
+
+        Set<String> layouts = new HashSet<>();
+        long read = FleetEnumerator.read(new ByteArrayInputStream(out.toByteArray()), fleet -> {
+            assertEquals(3, fleet.getShips().size());
+            layouts.add(layout(fleet));
+        });
+        assertEquals(written, read);
+        assertEquals(written, layouts.size());
+    }
+
+    @Test
+    void countMatchesTheFleetsReadBack() throws IOException {
+        for (BoardSpec spec : new BoardSpec[] { new BoardSpec(2, 2, Map.of()),
+                new BoardSpec(1, 2, Map.of(ShipKind.BARGE, 2)), new BoardSpec(4, 4, Map.of(ShipKind.BARGE, 3)) }) {
+            FleetEnumerator enumerator = new FleetEnumerator(spec);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            enumerator.write(out);
+
+            long read = FleetEnumerator.read(new ByteArrayInputStream(out.toByteArray()), fleet -> {
+            });
+            assertEquals(enumerator.count(), read, spec.toString());
+        }
+    }
+
+    @Test
+    void rateDoesNotOverflowOnLargeCounts() {
+        assertEquals(2_000, FleetEnumerator.rate(4_000, 2_000_000_000L));
+        // six thousand trillion fleets, the default board, in an hour
+        long fleets = 6_176_754_266_272_264L;
+        long rate = FleetEnumerator.rate(fleets, 3_600_000_000_000L);
+        assertEquals(fleets / 3_600.0, rate, 1e3);
+        assertEquals(Long.MAX_VALUE, FleetEnumerator.rate(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void readRejectsForeignStreams() {
+        assertThrows(IOException.class, () -> FleetEnumerator.read(new ByteArrayInputStream(new byte[8]), fleet -> {
+        }));
+    }
+}
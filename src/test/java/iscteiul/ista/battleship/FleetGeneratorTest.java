@@ -0,0 +1,80 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetGeneratorTest {
+
+    private String layout(Fleet fleet) {
+        StringBuilder sb = new StringBuilder();
+        for (IShip s : fleet.getShips())
+            sb.append(s).append(';');
+        return sb.toString();
+    }
+
+    @Test
+    void generatesCompleteLegalFleets() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.DEFAULT, 7);
+
+        for (int i = 0; i < 1_000; i++) {
+            Fleet fleet = generator.generate();
+            assertEquals(11, fleet.getShips().size());
+
+            Fleet copy = new Fleet();
+            for (IShip s : fleet.getShips())
+                assertTrue(copy.addShip(s), "ship " + s + " breaks the rules");
+            assertEquals(4, fleet.getShipsLike("Barca").size());
+            assertEquals(1, fleet.getShipsLike("Galeao").size());
+        }
+        assertEquals(1_000, generator.getFleetsGenerated());
+        assertTrue(generator.getFleetsPerSecond() > 0);
+    }
+
+    @Test
+    void sameSeedSameFleets() {
+        FleetGenerator a = new FleetGenerator(BoardSpec.DEFAULT, 123);
+        FleetGenerator b = new FleetGenerator(BoardSpec.DEFAULT, 123);
+
+        for (int i = 0; i < 50; i++)
+            assertEquals(layout(a.generate()), layout(b.generate()));
+    }
+
+    @Test
+    void tightBoardsNeedBacktracking() {
+        // two galleons and a frigate barely fit on a 7x7 board
+        BoardSpec spec = new BoardSpec(7, 7, Map.of(ShipKind.GALLEON, 2, ShipKind.FRIGATE, 1, ShipKind.BARGE, 2));
+        FleetGenerator generator = new FleetGenerator(spec, 1);
+
+        for (int i = 0; i < 200; i++)
+            assertEquals(5, generator.generate().getShips().size());
+    }
+
+    @Test
+    void impossibleFleetsAreReported() {
+        BoardSpec spec = new BoardSpec(3, 3, Map.of(ShipKind.FRIGATE, 1));
+        assertThrows(IllegalStateException.class, () -> new FleetGenerator(spec, 1).generate());
+    }
+
+    @Test
+    void generatorsWithoutASourceDrawOnlyFromTheOneGiven() {
+        FleetGenerator unseeded = new FleetGenerator(BoardSpec.DEFAULT);
+        assertThrows(IllegalStateException.class, unseeded::generate);
+
+        Fleet fleet = unseeded.generate(new SplittableRandom(3));
+        Fleet same = new FleetGenerator(BoardSpec.DEFAULT, 99).generate(new SplittableRandom(3));
+        assertEquals(layout(fleet), layout(same));
+    }
+
+    @Test
+    void worksOnSparseBoards() {
+        BoardSpec spec = new BoardSpec(20_000, 20_000, Map.of(ShipKind.GALLEON, 500, ShipKind.BARGE, 2_000));
+        Fleet fleet = new FleetGenerator(spec, 9).generate();
+
+        assertEquals(2_500, fleet.getShips().size());
+        assertEquals(2_500, fleet.getFloatingCount());
+    }
+}
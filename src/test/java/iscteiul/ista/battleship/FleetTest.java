@@ -10,6 +10,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 class FleetTest {
 
@@ -471,6 +472,84 @@ class FleetTest {
         );
     }
 
+    @Test
+    void realShipsUseBoardOccupancy() {
+        Fleet fleet = new Fleet();
+        Caravel caravel = new Caravel(Compass.NORTH, new Position(2, 2));
+
+        assertTrue(fleet.addShip(caravel), "Caravel should be accepted");
+        assertFalse(fleet.addShip(new Barge(Compass.NORTH, new Position(4, 3))), "Diagonal neighbour must be rejected");
+        assertTrue(fleet.addShip(new Barge(Compass.NORTH, new Position(5, 2))), "Ship two cells away should be accepted");
+
+        assertAll(
+                () -> assertSame(caravel, fleet.shipAt(new Position(3, 2))),
+                () -> assertNull(fleet.shipAt(new Position(4, 2))),
+                () -> assertNull(fleet.shipAt(new Position(20, 20)))
+        );
+    }
+
+    @Test
+    void shootHitsTheSegmentAtThatCell() {
+        Fleet fleet = new Fleet();
+        Carrack carrack = new Carrack(Compass.EAST, new Position(5, 5));
+        fleet.addShip(carrack);
+
+        assertSame(carrack, fleet.shoot(new Position(5, 6)));
+        assertNull(fleet.shoot(new Position(6, 6)));
+
+        assertAll(
+                () -> assertFalse(carrack.isSegmentHit(0)),
+                () -> assertTrue(carrack.isSegmentHit(1)),
+                () -> assertFalse(carrack.isSegmentHit(2))
+        );
+    }
+
+    @Test
+    void oceanFleetStoresOnlyOccupiedCells() {
+        Fleet fleet = new Fleet(new BoardSpec(100_000, 100_000, Map.of(ShipKind.FRIGATE, 5_001)));
+
+        int added = 0;
+        for (int i = 0; i < 5_000; i++)
+            if (fleet.addShip(new Frigate(Compass.EAST, new Position(i * 19, (i * 7_919) % 99_990))))
+                added++;
+
+        assertEquals(5_000, added);
+        assertSame(fleet.getShips().get(4_000), fleet.shipAt(new Position(4_000 * 19, (4_000 * 7_919) % 99_990 + 3)));
+        assertNull(fleet.shipAt(new Position(99_999, 99_999)));
+        assertFalse(fleet.addShip(new Frigate(Compass.EAST, new Position(1, 2))));
+    }
+
+    @Test
+    void forbiddenCellsSurroundEveryShip() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Galleon(Compass.NORTH, new Position(0, 0)));
+
+        assertAll(
+                () -> assertFalse(fleet.isFree(0, 3)),
+                () -> assertFalse(fleet.isFree(3, 2)),
+                () -> assertTrue(fleet.isFree(0, 4)),
+                () -> assertTrue(fleet.isFree(3, 3)),
+                () -> assertFalse(fleet.isFree(-1, 0))
+        );
+    }
+
+    @Test
+    void shapeQueriesAgreeWithShipQueries() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Galleon(Compass.SOUTH, new Position(2, 3)));
+        fleet.addShip(new Frigate(Compass.EAST, new Position(7, 5)));
+        fleet.addShip(new Barge(Compass.NORTH, new Position(0, 9)));
+
+        for (ShipKind kind : ShipKind.values())
+            for (Compass bearing : new Compass[]{Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST})
+                for (int r = -2; r < 12; r++)
+                    for (int c = -2; c < 12; c++) {
+                        Ship ship = kind.build(bearing, new Position(r, c));
+                        assertEquals(fleet.canPlace(ship), fleet.canPlace(kind.shape(bearing), r, c),
+                                kind + " " + bearing + " at " + r + "," + c);
+                    }
+    }
+
     private class MockShip implements IShip {
 
         private String category;
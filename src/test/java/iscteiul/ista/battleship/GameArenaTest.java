@@ -0,0 +1,105 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameArenaTest {
+
+    @Test
+    void firesLikeGame() {
+        BoardSpec spec = BoardSpec.DEFAULT;
+        FleetGenerator generator = new FleetGenerator(spec, 31);
+        SplittableRandom random = new SplittableRandom(31);
+        int games = 64;
+        GameArena arena = new GameArena(spec, games);
+        Game[] reference = new Game[games];
+        Fleet[] fleets = new Fleet[games];
+
+        for (int g = 0; g < games; g++) {
+            fleets[g] = generator.generate();
+            arena.load(g, fleets[g]);
+            reference[g] = new Game(fleets[g]);
+        }
+
+        // interleave the games, with shots off the board and repeated shots
+        for (int round = 0; round < 150; round++)
+            for (int g = 0; g < games; g++) {
+                int row = random.nextInt(-1, spec.getRows() + 1);
+                int column = random.nextInt(-1, spec.getColumns() + 1);
+                IShip sunk = reference[g].fire(new Position(row, column));
+                int ship = arena.fire(g, row, column);
+
+                if (sunk == null)
+                    assertEquals(GameArena.NONE, ship);
+                else {
+                    assertSame(sunk, fleets[g].getShips().get(ship));
+                    assertEquals(sunk.getCategory(), arena.getKind(g, ship).getCategory());
+                }
+                assertEquals(reference[g].getHits(), arena.getHits(g));
+                assertEquals(reference[g].getSunkShips(), arena.getSunkShips(g));
+                assertEquals(reference[g].getRemainingShips(), arena.getRemainingShips(g));
+                assertEquals(reference[g].getInvalidShots(), arena.getInvalidShots(g));
+                assertEquals(reference[g].getRepeatedShots(), arena.getRepeatedShots(g));
+                assertEquals(reference[g].isOver(), arena.isOver(g));
+            }
+    }
+
+    @Test
+    void numbersMoreShipsThanASignedByteHolds() {
+        BoardSpec spec = new BoardSpec(64, 64, Map.of(ShipKind.BARGE, 200));
+        Fleet fleet = new Fleet(spec);
+        for (int s = 0; s < 200; s++)
+            assertTrue(fleet.addShip(new Barge(Compass.NORTH, new Position(2 * (s / 32), 2 * (s % 32)))));
+        GameArena arena = new GameArena(spec, 1);
+        arena.load(0, fleet);
+        Game reference = new Game(fleet);
+
+        for (int s = 0; s < 200; s++) {
+            IPosition pos = fleet.getShips().get(s).getPositions().get(0);
+            IShip sunk = reference.fire(new Position(pos.getRow(), pos.getColumn()));
+            assertSame(sunk, fleet.getShips().get(arena.fire(0, pos.getRow(), pos.getColumn())));
+            assertEquals(reference.getHits(), arena.getHits(0));
+            assertEquals(reference.isOver(), arena.isOver(0));
+        }
+        assertTrue(arena.isOver(0));
+    }
+
+    @Test
+    void loadingAGameStartsItOver() {
+        BoardSpec spec = new BoardSpec(3, 3, Map.of(ShipKind.BARGE, 1));
+        GameArena arena = new GameArena(spec, 2);
+        Fleet fleet = new Fleet(spec);
+        fleet.addShip(new Barge(Compass.NORTH, new Position(1, 1)));
+
+        arena.load(1, fleet);
+        assertEquals(GameArena.NONE, arena.fire(1, 0, 0));
+        assertEquals(0, arena.fire(1, 1, 1));
+        assertTrue(arena.isOver(1));
+        assertTrue(arena.isShot(1, 0, 0));
+        assertEquals(ShipKind.BARGE, arena.getKind(1, 0));
+
+        arena.load(1, fleet);
+        assertFalse(arena.isOver(1));
+        assertFalse(arena.isShot(1, 0, 0));
+        assertEquals(0, arena.getShots(1));
+
+        // the other slot was never loaded
+        assertTrue(arena.isOver(0));
+        assertEquals(GameArena.NONE, arena.fire(0, 1, 1));
+    }
+
+    @Test
+    void rejectsFleetsThatDoNotFit() {
+        BoardSpec spec = new BoardSpec(3, 3, Map.of(ShipKind.BARGE, 1));
+        GameArena arena = new GameArena(spec, 1);
+        Fleet larger = new Fleet(BoardSpec.DEFAULT);
+        larger.addShip(new Barge(Compass.NORTH, new Position(5, 5)));
+
+        assertThrows(IllegalArgumentException.class, () -> arena.load(0, larger));
+        assertThrows(IllegalArgumentException.class, () -> new GameArena(spec, 0));
+    }
+}
@@ -24,7 +24,7 @@ class GameTest {
     // ---------- Invalid shots ----------
     @ParameterizedTest
     @CsvSource({
-            "-1,5", "5,-1", "20,2", "2,20"
+            "-1,5", "5,-1", "20,2", "2,20", "10,0", "0,10"
     })
     void invalidShotsIncrementCounter(int r, int c) throws Exception {
         Fleet fleet = new Fleet();
@@ -130,6 +130,117 @@ class GameTest {
         assertEquals(1, game.getRemainingShips());
     }
 
+    // ---------- end of game ----------
+    @Test
+    void gameIsOverWhenLastShipSinks() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(1,1)));
+        fleet.addShip(new Caravel(Compass.EAST, new Position(5,5)));
+
+        Game game = new Game(fleet);
+
+        game.fire(new Position(1,1));
+        game.fire(new Position(5,5));
+        assertFalse(game.isOver());
+        assertEquals(1, game.getRemainingShips());
+
+        game.fire(new Position(5,6));
+        assertTrue(game.isOver());
+        assertEquals(0, game.getRemainingShips());
+        assertEquals(2, game.getSunkShips());
+        assertEquals(3, game.getHits());
+    }
+
+    // ---------- board size ----------
+    @Test
+    void gameFollowsTheBoardOfItsFleet() {
+        BoardSpec spec = new BoardSpec(5, 20);
+        Fleet fleet = new Fleet(spec);
+        assertTrue(fleet.addShip(new Frigate(Compass.EAST, new Position(4, 16))));
+        assertFalse(fleet.addShip(new Frigate(Compass.NORTH, new Position(3, 0))));
+
+        Game game = new Game(fleet);
+        game.fire(new Position(5, 0));
+        game.fire(new Position(0, 19));
+        game.fire(new Position(4, 19));
+
+        assertEquals(1, game.getInvalidShots());
+        assertEquals(2, game.getShots().size());
+        assertEquals(1, game.getHits());
+        assertDoesNotThrow(game::printFleet);
+    }
+
+    @Test
+    void sparseBoardsPlayTheSameWay() {
+        Fleet fleet = new Fleet(new BoardSpec(50_000, 50_000));
+        Caravel cv = new Caravel(Compass.NORTH, new Position(40_000, 12));
+        assertTrue(fleet.addShip(cv));
+        assertFalse(fleet.addShip(new Barge(Compass.NORTH, new Position(40_002, 13))));
+
+        Game game = new Game(fleet);
+        game.fire(new Position(40_000, 12));
+        assertSame(cv, game.fire(new Position(40_001, 12)));
+        assertTrue(game.isOver());
+    }
+
+    // ---------- knowledge hash ----------
+    private Fleet twoShips() {
+        Fleet fleet = new Fleet();
+        fleet.addShip(new Barge(Compass.NORTH, new Position(1,1)));
+        fleet.addShip(new Caravel(Compass.EAST, new Position(5,5)));
+        return fleet;
+    }
+
+    @Test
+    void knowledgeHashDependsOnTheStateNotTheOrder() {
+        Game first = new Game(twoShips());
+        Game second = new Game(twoShips());
+        assertEquals(0, first.getKnowledgeHash());
+
+        first.fire(new Position(0,0));
+        first.fire(new Position(5,5));
+        second.fire(new Position(5,5));
+        second.fire(new Position(0,0));
+
+        assertNotEquals(0, first.getKnowledgeHash());
+        assertEquals(first.getKnowledgeHash(), second.getKnowledgeHash());
+    }
+
+    @Test
+    void knowledgeHashIgnoresRepeatedAndInvalidShots() {
+        Game game = new Game(twoShips());
+        game.fire(new Position(5,5));
+        long hash = game.getKnowledgeHash();
+
+        game.fire(new Position(5,5));
+        game.fire(new Position(-1,3));
+        assertEquals(hash, game.getKnowledgeHash());
+    }
+
+    @Test
+    void knowledgeHashTellsHitsFromMissesAndSinks() {
+        long hit = Zobrist.key(55, Zobrist.HIT);
+        long missed = Zobrist.key(55, Zobrist.MISS);
+        Game game = new Game(twoShips());
+
+        game.fire(new Position(5,5));
+        assertEquals(hit, game.getKnowledgeHash());
+        assertNotEquals(missed, game.getKnowledgeHash());
+
+        game.fire(new Position(5,6));
+        assertEquals(Zobrist.key(55, Zobrist.SUNK) ^ Zobrist.key(56, Zobrist.SUNK), game.getKnowledgeHash());
+    }
+
+    @Test
+    void knowledgeHashHandlesSparseBoards() {
+        Fleet fleet = new Fleet(new BoardSpec(50_000, 50_000));
+        fleet.addShip(new Barge(Compass.NORTH, new Position(49_999, 49_999)));
+        Game game = new Game(fleet);
+
+        game.fire(new Position(49_999, 49_999));
+        assertEquals(Zobrist.key(50_000L * 50_000 - 1, Zobrist.SUNK), game.getKnowledgeHash());
+    }
+
     // ---------- printValidShots ----------
     @Test
     void printValidShotsDoesNotThrow() throws Exception {
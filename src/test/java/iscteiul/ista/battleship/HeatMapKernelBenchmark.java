@@ -0,0 +1,71 @@
+package iscteiul.ista.battleship;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the scalar and vector heat map kernels on square boards with a
+ * fifth of the cells blocked. After {@code mvn test-compile}, run with
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:&lt;test classpath&gt; \
+ *     org.openjdk.jmh.Main HeatMapKernelBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HeatMapKernelBenchmark {
+    @Param({"10", "32", "64"})
+    public int size;
+
+    private HeatMapKernel scalar;
+    private HeatMapKernel vector;
+    private long[] blocked;
+    private int[] weights;
+    private int[] heat;
+
+    @Setup
+    public void setUp() {
+        BoardSpec spec = new BoardSpec(size, size);
+        scalar = new ScalarHeatMapKernel(spec);
+        vector = new VectorHeatMapKernel(spec);
+
+        int cells = size * size;
+        SplittableRandom random = new SplittableRandom(size);
+        blocked = new long[(cells + 63) >>> 6];
+        for (int cell = 0; cell < cells; cell++)
+            if (random.nextInt(5) == 0)
+                blocked[cell >>> 6] |= 1L << cell;
+        weights = new int[ShipKind.values().length];
+        for (ShipKind kind : ShipKind.values())
+            weights[kind.ordinal()] = spec.getCount(kind);
+        heat = new int[cells];
+    }
+
+    @Benchmark
+    public int[] scalar() {
+        scalar.compute(blocked, weights, heat);
+        return heat;
+    }
+
+    @Benchmark
+    public int[] vector() {
+        vector.compute(blocked, weights, heat);
+        return heat;
+    }
+}
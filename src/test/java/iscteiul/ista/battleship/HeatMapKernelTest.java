@@ -0,0 +1,74 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeatMapKernelTest {
+
+    // the same counts from the placements table
+    private int[] expected(BoardSpec spec, long[] blocked, int[] weights) {
+        Placements placements = new Placements(spec);
+        int[] heat = new int[spec.getRows() * spec.getColumns()];
+        for (ShipKind kind : ShipKind.values())
+            for (int p = placements.first(kind); p < placements.end(kind); p++)
+                if (placements.fits(p, blocked))
+                    for (int i = 0; i < placements.cellCount(p); i++)
+                        heat[placements.cell(p, i)] += weights[kind.ordinal()];
+        return heat;
+    }
+
+    private void checkBoard(BoardSpec spec, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cells = spec.getRows() * spec.getColumns();
+        HeatMapKernel scalar = new ScalarHeatMapKernel(spec);
+        HeatMapKernel vector = new VectorHeatMapKernel(spec);
+        int[] weights = new int[ShipKind.values().length];
+        int[] heat = new int[cells];
+
+        for (int round = 0; round < 20; round++) {
+            long[] blocked = new long[(cells + 63) >>> 6];
+            for (int cell = 0; cell < cells; cell++)
+                if (random.nextInt(100) < round * 4)
+                    blocked[cell >>> 6] |= 1L << cell;
+            for (int k = 0; k < weights.length; k++)
+                weights[k] = random.nextInt(3);
+
+            int[] want = expected(spec, blocked, weights);
+            scalar.compute(blocked, weights, heat);
+            assertArrayEquals(want, heat, "scalar, " + spec + " round " + round);
+            vector.compute(blocked, weights, heat);
+            assertArrayEquals(want, heat, "vector, " + spec + " round " + round);
+        }
+    }
+
+    @Test
+    void kernelsAgreeWithPlacements() {
+        checkBoard(BoardSpec.DEFAULT, 1);
+        checkBoard(new BoardSpec(7, 13), 2);
+        checkBoard(new BoardSpec(20, 3), 3);
+        checkBoard(new BoardSpec(64, 64), 4);
+        checkBoard(new BoardSpec(1, 1, Map.of(ShipKind.BARGE, 1)), 5);
+    }
+
+    @Test
+    void createPicksTheVectorKernelWhenAvailable() {
+        HeatMapKernel kernel = HeatMapKernel.create(BoardSpec.DEFAULT);
+
+        assertEquals(HeatMapKernel.isVectorAvailable(), kernel instanceof VectorHeatMapKernel);
+    }
+
+    @Test
+    void emptyBoardCountsEveryPlacement() {
+        BoardSpec spec = new BoardSpec(3, 3, Map.of(ShipKind.CARAVEL, 1));
+        int[] weights = new int[ShipKind.values().length];
+        weights[ShipKind.CARAVEL.ordinal()] = 1;
+        int[] heat = new int[9];
+
+        HeatMapKernel.create(spec).compute(new long[1], weights, heat);
+        assertArrayEquals(new int[]{2, 3, 2, 3, 4, 3, 2, 3, 2}, heat);
+    }
+}
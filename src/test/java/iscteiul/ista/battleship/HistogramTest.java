@@ -0,0 +1,52 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void percentilesOfRecordedValues() {
+        Histogram h = new Histogram(100);
+        assertEquals(-1, h.percentile(0.5));
+        for (int v = 1; v <= 100; v++)
+            h.record(v);
+
+        assertEquals(100, h.getCount());
+        assertEquals(50.5, h.getMean(), 1e-9);
+        assertEquals(1, h.percentile(0));
+        assertEquals(50, h.percentile(0.5));
+        assertEquals(90, h.percentile(0.9));
+        assertEquals(99, h.percentile(0.99));
+        assertEquals(100, h.percentile(1));
+        assertEquals(100, h.getMax());
+    }
+
+    @Test
+    void largeValuesShareTheLastBucket() {
+        Histogram h = new Histogram(10);
+        h.record(3);
+        h.record(500);
+
+        assertEquals(1, h.getCount(10));
+        assertEquals(500, h.getMax());
+        assertEquals(500, h.percentile(1));
+        assertEquals(251.5, h.getMean(), 1e-9);
+    }
+
+    @Test
+    void mergeAddsCounts() {
+        Histogram a = new Histogram(10);
+        Histogram b = new Histogram(10);
+        a.record(2);
+        b.record(2);
+        b.record(7);
+        a.merge(b);
+
+        assertEquals(3, a.getCount());
+        assertEquals(2, a.getCount(2));
+        assertEquals(7, a.getMax());
+        assertThrows(IllegalArgumentException.class, () -> a.merge(new Histogram(5)));
+    }
+}
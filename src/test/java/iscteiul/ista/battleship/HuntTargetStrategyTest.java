@@ -0,0 +1,70 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HuntTargetStrategyTest {
+
+    @Test
+    void huntsOnTheParityOfTheSmallestShip() {
+        BoardSpec spec = new BoardSpec(4, 4, Map.of(ShipKind.CARAVEL, 1));
+        HuntTargetStrategy strategy = new HuntTargetStrategy(spec);
+
+        for (int i = 0; i < 8; i++) {
+            IPosition pos = strategy.nextShot();
+            assertEquals(0, (pos.getRow() + pos.getColumn()) % 2, pos.toString());
+            assertFalse(strategy.isTargeting());
+            strategy.observe(pos.getRow(), pos.getColumn(), false, null);
+        }
+    }
+
+    @Test
+    void targetsAlongTheAxisOfTheHits() {
+        BoardSpec spec = new BoardSpec(5, 5, Map.of(ShipKind.FRIGATE, 1));
+        HuntTargetStrategy strategy = new HuntTargetStrategy(spec);
+
+        strategy.observe(2, 2, true, null);
+        assertTrue(strategy.isTargeting());
+        IPosition next = strategy.nextShot();
+        assertEquals(1, Math.abs(next.getRow() - 2) + Math.abs(next.getColumn() - 2));
+
+        strategy.observe(2, 1, true, null);
+        strategy.observe(1, 2, false, null);
+        strategy.observe(3, 2, false, null);
+        next = strategy.nextShot();
+        assertEquals(2, next.getRow());
+        assertTrue(next.getColumn() == 0 || next.getColumn() == 3, next.toString());
+
+        strategy.observe(2, 3, true, null);
+        strategy.observe(2, 0, true, new Frigate(Compass.EAST, new Position(2, 0)));
+        assertFalse(strategy.isTargeting());
+    }
+
+    @Test
+    void sinksWholeFleets() {
+        StrategyBenchmark benchmark = new StrategyBenchmark(new HuntTargetStrategy(BoardSpec.DEFAULT), 3);
+        benchmark.run(200);
+
+        assertEquals(200, benchmark.getGames());
+        assertTrue(benchmark.getAverageShots() < 100, "average of " + benchmark.getAverageShots());
+        assertTrue(benchmark.getDecisionsPerSecond() > 0);
+    }
+
+    @Test
+    void neverShootsTheSameCellTwice() {
+        FleetGenerator generator = new FleetGenerator(BoardSpec.DEFAULT, 4);
+        HuntTargetStrategy strategy = new HuntTargetStrategy(BoardSpec.DEFAULT);
+
+        for (int i = 0; i < 50; i++) {
+            Game game = new Game(generator.generate());
+            strategy.reset();
+            strategy.playOut(game);
+            assertTrue(game.isOver());
+            assertEquals(0, game.getRepeatedShots());
+            assertEquals(0, game.getInvalidShots());
+        }
+    }
+}
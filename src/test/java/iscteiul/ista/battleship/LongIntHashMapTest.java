@@ -0,0 +1,49 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongIntHashMapTest {
+
+    @Test
+    void putGetAndRemove() {
+        LongIntHashMap map = new LongIntHashMap();
+
+        map.put(7, 70);
+        map.put(10_000_000_000L, 3);
+        assertEquals(70, map.get(7));
+        assertEquals(3, map.get(10_000_000_000L));
+        assertEquals(0, map.get(8));
+        assertEquals(2, map.size());
+
+        map.put(7, 0);
+        assertEquals(0, map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void agreesWithHashMapUnderRandomChurn() {
+        LongIntHashMap map = new LongIntHashMap();
+        Map<Long, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            int value = random.nextInt(4);
+            map.put(key, value);
+            if (value == 0)
+                reference.remove(key);
+            else
+                reference.put(key, value);
+        }
+
+        assertEquals(reference.size(), map.size());
+        for (long key = 0; key < 5_000; key++)
+            assertEquals(reference.getOrDefault(key, 0).intValue(), map.get(key), "key " + key);
+    }
+}
@@ -0,0 +1,92 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+    private static final BoardSpec SMALL = new BoardSpec(5, 5, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 2));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsThroughAFile() throws IOException {
+        Placements placements = new Placements(SMALL);
+        Path file = dir.resolve("small.bok");
+        int reachable = OpeningBook.build(placements, 4, file);
+        OpeningBook book = OpeningBook.load(file);
+
+        assertEquals(SMALL, book.getSpec());
+        assertEquals(4, book.getDepth());
+        assertEquals(1 + 3 + 9 + 27, book.size());
+        assertTrue(reachable > 1 && reachable <= book.size());
+
+        // the root is the first shot of the strategy it was built from
+        IPosition first = new DensityTargeting(placements).nextShot();
+        assertEquals(first.getRow() * 5 + first.getColumn(), book.shot(0));
+        assertEquals(3, book.child(0, OpeningBook.SUNK));
+        assertEquals(OpeningBook.NONE, book.child(13, OpeningBook.MISS));
+        assertEquals(OpeningBook.NONE, book.shot(OpeningBook.NONE));
+    }
+
+    @Test
+    void playsTheSameGamesAsTheStrategyItWasBuiltFrom() throws IOException {
+        Placements placements = new Placements(SMALL);
+        Path file = dir.resolve("small.bok");
+        OpeningBook.build(placements, 6, file);
+        OpeningBookStrategy booked = new OpeningBookStrategy(OpeningBook.load(file), new DensityTargeting(placements));
+        DensityTargeting plain = new DensityTargeting(placements);
+        FleetGenerator first = new FleetGenerator(SMALL, 2);
+        FleetGenerator second = new FleetGenerator(SMALL, 2);
+
+        for (int i = 0; i < 50; i++) {
+            booked.reset();
+            plain.reset();
+            assertTrue(booked.isInBook());
+            Game game = new Game(first.generate());
+            Game replay = new Game(second.generate());
+            assertEquals(plain.playOut(game), booked.playOut(replay));
+            assertEquals(game.getKnowledgeHash(), replay.getKnowledgeHash());
+            assertFalse(booked.isInBook());
+        }
+    }
+
+    @Test
+    void rejectsBadFilesAndOtherBoards() throws IOException {
+        Path junk = dir.resolve("junk.bok");
+        Files.write(junk, new byte[64]);
+        assertThrows(IOException.class, () -> OpeningBook.load(junk));
+
+        Path file = dir.resolve("small.bok");
+        OpeningBook.build(new Placements(SMALL), 3, file);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated.bok");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> OpeningBook.load(truncated));
+
+        // a corrupt board, fleet or number of kinds in the header
+        for (int offset : new int[] { 4, 12, 16 }) {
+            Path corrupt = dir.resolve("corrupt" + offset + ".bok");
+            byte[] copy = bytes.clone();
+            ByteBuffer.wrap(copy).putInt(offset, -5);
+            Files.write(corrupt, copy);
+            assertThrows(IOException.class, () -> OpeningBook.load(corrupt));
+        }
+
+        OpeningBook book = OpeningBook.load(file);
+        assertThrows(IllegalArgumentException.class,
+                () -> new OpeningBookStrategy(book, new DensityTargeting(BoardSpec.DEFAULT)));
+        assertThrows(IllegalArgumentException.class,
+                () -> OpeningBook.build(new Placements(SMALL), 0, dir.resolve("empty.bok")));
+        assertFalse(Files.exists(dir.resolve("empty.bok")));
+    }
+}
@@ -65,6 +65,16 @@ class PositionTest {
             Position p2 = new Position(3, 4);
             assertEquals(p1.hashCode(), p2.hashCode());
         }
+
+        @Test
+        @DisplayName("hashCode não depende do estado da posição")
+        void testHashCodeIgnoresState() {
+            Position p1 = new Position(3, 4);
+            Position p2 = new Position(3, 4);
+            p2.shoot();
+            p2.occupy();
+            assertEquals(p1.hashCode(), p2.hashCode());
+        }
     }
 
     @Nested
@@ -0,0 +1,94 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProbabilityCacheTest {
+
+    @Test
+    void copiesMapsInAndOut() {
+        ProbabilityCache cache = new ProbabilityCache(BoardSpec.DEFAULT, 4);
+        long[] map = {1, 2, 3};
+        long[] read = new long[3];
+
+        assertFalse(cache.get(7, read));
+        cache.put(7, map);
+        map[0] = 99;
+        assertTrue(cache.get(7, read));
+        assertArrayEquals(new long[]{1, 2, 3}, read);
+
+        read[1] = 99;
+        long[] again = new long[3];
+        cache.get(7, again);
+        assertArrayEquals(new long[]{1, 2, 3}, again);
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedMap() {
+        // 16 segments of 2 maps; small hashes share the first
+        ProbabilityCache cache = new ProbabilityCache(BoardSpec.DEFAULT, 32);
+        long[] map = new long[1];
+        cache.put(1, new long[]{1});
+        cache.put(2, new long[]{2});
+        assertTrue(cache.get(1, map));
+        cache.put(3, new long[]{3});
+
+        assertEquals(2, cache.size());
+        assertFalse(cache.get(2, map));
+        assertTrue(cache.get(1, map));
+        assertEquals(1, map[0]);
+        assertTrue(cache.get(3, map));
+        assertEquals(3, map[0]);
+    }
+
+    @Test
+    void neverHoldsMoreThanItsCapacity() {
+        ProbabilityCache cache = new ProbabilityCache(BoardSpec.DEFAULT, 100);
+        for (int i = 0; i < 10_000; i++)
+            cache.put(RunSeeds.mix(i), new long[]{i});
+
+        assertEquals(100, cache.size());
+        assertEquals(0.0, cache.hitRate());
+        assertThrows(IllegalArgumentException.class, () -> new ProbabilityCache(BoardSpec.DEFAULT, 0));
+    }
+
+    @Test
+    void isSharedSafelyByManyThreads() throws InterruptedException {
+        ProbabilityCache cache = new ProbabilityCache(BoardSpec.DEFAULT, 64);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                long[] map = new long[2];
+                for (int i = 0; i < 20_000; i++) {
+                    long hash = RunSeeds.mix(i % 200);
+                    if (cache.get(hash, map))
+                        assertEquals(hash, map[0] ^ map[1]);
+                    else
+                        cache.put(hash, new long[]{i, hash ^ i});
+                }
+            });
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (failures) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertEquals(80_000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 64);
+    }
+}
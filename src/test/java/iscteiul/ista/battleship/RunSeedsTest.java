@@ -0,0 +1,40 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunSeedsTest {
+
+    @Test
+    void seedsDependOnlyOnRunAndGame() {
+        RunSeeds a = new RunSeeds(42);
+        RunSeeds b = new RunSeeds(42);
+
+        for (long g = 0; g < 1_000; g += 37) {
+            assertEquals(a.gameSeed(g), b.gameSeed(g));
+            assertEquals(a.gameRandom(g).nextLong(), b.gameRandom(g).nextLong());
+        }
+        assertNotEquals(a.gameSeed(5), new RunSeeds(43).gameSeed(5));
+    }
+
+    @Test
+    void gamesOfABlockShareItsSeed() {
+        RunSeeds seeds = new RunSeeds(7);
+
+        assertEquals(seeds.blockSeed(0), seeds.blockSeed(RunSeeds.BLOCK_SIZE - 1));
+        assertNotEquals(seeds.blockSeed(0), seeds.blockSeed(RunSeeds.BLOCK_SIZE));
+        assertEquals(RunSeeds.derive(seeds.blockSeed(300), 300 % RunSeeds.BLOCK_SIZE), seeds.gameSeed(300));
+    }
+
+    @Test
+    void gameSeedsDoNotCollide() {
+        RunSeeds seeds = new RunSeeds(0);
+        Set<Long> seen = new HashSet<>();
+        for (long g = 0; g < 100_000; g++)
+            assertTrue(seen.add(seeds.gameSeed(g)));
+    }
+}
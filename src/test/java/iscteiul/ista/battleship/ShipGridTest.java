@@ -0,0 +1,50 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShipGridTest {
+
+    private List<Integer> near(ShipGrid grid, int top, int bottom, int left, int right) {
+        List<Integer> found = new ArrayList<>();
+        grid.anyNear(top, bottom, left, right, id -> {
+            found.add(id);
+            return false;
+        });
+        return found;
+    }
+
+    @Test
+    void onlyShipsInNearbyBucketsAreVisited() {
+        ShipGrid grid = new ShipGrid(new BoardSpec(1_000, 1_000));
+        grid.add(0, 10, 10, 10, 13);
+        grid.add(1, 500, 504, 500, 500);
+        grid.add(2, 12, 12, 900, 900);
+
+        assertEquals(List.of(0), near(grid, 9, 11, 12, 16));
+        assertEquals(List.of(1), near(grid, 503, 506, 499, 501));
+        assertTrue(near(grid, 300, 301, 300, 301).isEmpty());
+    }
+
+    @Test
+    void shipsSpanningBucketsAreVisitedOnce() {
+        ShipGrid grid = new ShipGrid(new BoardSpec(100, 100));
+        grid.add(0, 6, 9, 6, 9);
+
+        assertEquals(List.of(0), near(grid, 0, 20, 0, 20));
+    }
+
+    @Test
+    void searchStopsAtTheFirstAcceptedShip() {
+        ShipGrid grid = new ShipGrid(BoardSpec.DEFAULT);
+        grid.add(0, 0, 0, 0, 0);
+        grid.add(1, 1, 1, 1, 1);
+
+        assertTrue(grid.anyNear(-1, 2, -1, 2, id -> id == 0));
+        assertFalse(grid.anyNear(-1, 2, -1, 2, id -> id == 5));
+    }
+}
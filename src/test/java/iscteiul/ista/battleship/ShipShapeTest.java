@@ -0,0 +1,58 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShipShapeTest {
+
+    @ParameterizedTest
+    @EnumSource(value = Compass.class, names = {"NORTH", "SOUTH", "EAST", "WEST"})
+    void shipsFollowTheirShape(Compass bearing) {
+        for (ShipKind kind : ShipKind.values()) {
+            ShipShape shape = ShipShape.of(kind, bearing);
+            Ship ship = kind.build(bearing, new Position(4, 4));
+
+            assertEquals(kind.getSize(), shape.size());
+            assertEquals(kind.getSize(), ship.getSize());
+            assertEquals(kind.getCategory(), ship.getCategory());
+            for (int i = 0; i < shape.size(); i++)
+                assertEquals(Cell.of(4 + shape.getRowOffset(i), 4 + shape.getColumnOffset(i)), ship.getPositions().get(i));
+
+            assertEquals(4 + shape.getTop(), ship.getTopMostPos());
+            assertEquals(4 + shape.getBottom(), ship.getBottomMostPos());
+            assertEquals(4 + shape.getLeft(), ship.getLeftMostPos());
+            assertEquals(4 + shape.getRight(), ship.getRightMostPos());
+        }
+    }
+
+    @Test
+    void galleonShapes() {
+        assertEquals(List.of(Cell.of(0, 0), Cell.of(0, 1), Cell.of(0, 2), Cell.of(1, 1), Cell.of(2, 1)),
+                new Galleon(Compass.NORTH, Cell.of(0, 0)).getPositions());
+        assertEquals(List.of(Cell.of(0, 0), Cell.of(1, 0), Cell.of(2, -1), Cell.of(2, 0), Cell.of(2, 1)),
+                new Galleon(Compass.SOUTH, Cell.of(0, 0)).getPositions());
+        assertEquals(List.of(Cell.of(0, 0), Cell.of(1, -2), Cell.of(1, -1), Cell.of(1, 0), Cell.of(2, 0)),
+                new Galleon(Compass.EAST, Cell.of(0, 0)).getPositions());
+        assertEquals(List.of(Cell.of(0, 0), Cell.of(1, 0), Cell.of(1, 1), Cell.of(1, 2), Cell.of(2, 0)),
+                new Galleon(Compass.WEST, Cell.of(0, 0)).getPositions());
+    }
+
+    @Test
+    void unknownBearingIsOnlyValidForBarges() {
+        assertNotNull(ShipShape.of(ShipKind.BARGE, Compass.UNKNOWN));
+        assertNull(ShipShape.of(ShipKind.FRIGATE, Compass.UNKNOWN));
+        assertThrows(IllegalArgumentException.class, () -> new Carrack(Compass.UNKNOWN, new Position(1, 1)));
+        assertThrows(NullPointerException.class, () -> new Galleon(null, new Position(1, 1)));
+    }
+
+    @Test
+    void buildShipUsesKindKeys() {
+        assertInstanceOf(Carrack.class, Ship.buildShip("nau", Compass.EAST, new Position(1, 1)));
+        assertNull(Ship.buildShip("submarino", Compass.EAST, new Position(1, 1)));
+    }
+}
@@ -96,6 +96,35 @@ class ShipTest {
         }
     }
 
+    // -----------------------------------------------------------
+    @Nested
+    @DisplayName("Testes da caixa envolvente")
+    class BoundsTests {
+
+        @Test
+        @DisplayName("Limites do galeão a Este incluem as células à esquerda da origem")
+        void testGalleonBounds() {
+            Ship g = new Galleon(Compass.EAST, new Position(2, 5));
+
+            assertEquals(2, g.getTopMostPos());
+            assertEquals(4, g.getBottomMostPos());
+            assertEquals(3, g.getLeftMostPos());
+            assertEquals(5, g.getRightMostPos());
+        }
+
+        @Test
+        @DisplayName("Navios afastados não são demasiado próximos")
+        void testFarShipsAreNotTooClose() {
+            Ship a = new Frigate(Compass.EAST, new Position(0, 0));
+            Ship b = new Frigate(Compass.EAST, new Position(2, 0));
+            Ship c = new Frigate(Compass.EAST, new Position(1, 4));
+
+            assertFalse(a.tooCloseTo(b));
+            assertTrue(a.tooCloseTo(c));
+            assertFalse(a.occupies(new Position(0, 4)));
+        }
+    }
+
     // -----------------------------------------------------------
     @Nested
     @DisplayName("Testes do comportamento de tiro e flutuação")
@@ -114,6 +143,23 @@ class ShipTest {
             assertFalse(ship.stillFloating());
         }
 
+        @Test
+        @DisplayName("Tiro num segmento marca apenas esse segmento")
+        void testShootSegment() {
+            Ship frigate = new Frigate(Compass.SOUTH, new Position(1, 1));
+
+            frigate.shootSegment(2);
+
+            assertTrue(frigate.isSegmentHit(2));
+            assertFalse(frigate.isSegmentHit(1));
+            assertFalse(frigate.getPositions().get(2).isHit());
+            assertTrue(frigate.stillFloating());
+
+            for (int i = 0; i < frigate.getSize(); i++)
+                frigate.shootSegment(i);
+            assertFalse(frigate.stillFloating());
+        }
+
         @Test
         @DisplayName("Tiro em posição vazia não altera estado")
         void testShootWrongPosition() {
@@ -0,0 +1,57 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShotLedgerTest {
+
+    @Test
+    void repeatedCellsAreRejected() {
+        ShotLedger ledger = new ShotLedger(BoardSpec.DEFAULT);
+
+        assertTrue(ledger.add(3, 4));
+        assertFalse(ledger.add(3, 4));
+        assertTrue(ledger.contains(3, 4));
+        assertFalse(ledger.contains(4, 3));
+        assertEquals(1, ledger.size());
+    }
+
+    @Test
+    void listKeepsFiringOrder() {
+        ShotLedger ledger = new ShotLedger(BoardSpec.DEFAULT);
+        ledger.add(9, 9);
+        ledger.add(0, 0);
+
+        List<IPosition> first = ledger.asList();
+        assertEquals(List.of(new Position(9, 9), new Position(0, 0)), first);
+
+        ledger.add(5, 1);
+        assertEquals(new Position(5, 1), ledger.asList().get(2));
+        assertThrows(UnsupportedOperationException.class, () -> first.add(new Position(1, 1)));
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        ShotLedger ledger = new ShotLedger(BoardSpec.DEFAULT);
+        for (int r = 0; r < 10; r++)
+            for (int c = 0; c < 10; c++)
+                assertTrue(ledger.add(r, c));
+
+        assertEquals(100, ledger.size());
+        assertEquals(100, ledger.asList().size());
+        assertEquals(new Position(4, 7), ledger.asList().get(47));
+    }
+
+    @Test
+    void largeBoardsUseSparseStorage() {
+        BoardSpec ocean = new BoardSpec(100_000, 100_000);
+        ShotLedger ledger = new ShotLedger(ocean);
+
+        assertTrue(ledger.add(99_999, 99_999));
+        assertFalse(ledger.add(99_999, 99_999));
+        assertEquals(List.of(Cell.of(99_999, 99_999)), ledger.asList());
+    }
+}
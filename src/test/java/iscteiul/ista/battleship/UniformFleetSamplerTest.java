@@ -0,0 +1,124 @@
+package iscteiul.ista.battleship;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniformFleetSamplerTest {
+
+    private static final Compass[] BEARINGS = {Compass.NORTH, Compass.SOUTH, Compass.EAST, Compass.WEST};
+
+    // the cells of every ship of the fleet, independent of bearings and order
+    private String layout(Fleet fleet) {
+        TreeSet<String> ships = new TreeSet<>();
+        for (IShip s : fleet.getShips()) {
+            TreeSet<String> cells = new TreeSet<>();
+            for (IPosition p : s.getPositions())
+                cells.add(p.getRow() + "," + p.getColumn());
+            ships.add(s.getCategory() + cells);
+        }
+        return ships.toString();
+    }
+
+    // counts fleets of a caravel and a barge by trying every pair of ships
+    private long bruteForce(BoardSpec spec) {
+        java.util.Set<String> fleets = new java.util.HashSet<>();
+        for (Compass b1 : BEARINGS)
+            for (int r1 = -1; r1 <= spec.getRows(); r1++)
+                for (int c1 = -1; c1 <= spec.getColumns(); c1++) {
+                    Fleet fleet = new Fleet(spec);
+                    if (!fleet.addShip(new Caravel(b1, new Position(r1, c1))))
+                        continue;
+                    for (int r2 = 0; r2 < spec.getRows(); r2++)
+                        for (int c2 = 0; c2 < spec.getColumns(); c2++)
+                            if (fleet.canPlace(new Barge(Compass.NORTH, new Position(r2, c2)))) {
+                                Fleet full = new Fleet(spec);
+                                full.addShip(new Caravel(b1, new Position(r1, c1)));
+                                full.addShip(new Barge(Compass.NORTH, new Position(r2, c2)));
+                                fleets.add(layout(full));
+                            }
+                }
+        return fleets.size();
+    }
+
+    @Test
+    void countMatchesBruteForce() {
+        BoardSpec spec = new BoardSpec(4, 5, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 1));
+
+        assertEquals(bruteForce(spec), new UniformFleetSampler(spec).count());
+    }
+
+    @Test
+    void identicalShipsAreCountedOnce() {
+        // two barges on a 1x3 board: only the two end cells do not touch
+        BoardSpec spec = new BoardSpec(1, 3, Map.of(ShipKind.BARGE, 2));
+        assertEquals(1, new UniformFleetSampler(spec).count());
+
+        BoardSpec none = new BoardSpec(1, 2, Map.of(ShipKind.BARGE, 2));
+        assertEquals(0, new UniformFleetSampler(none).count());
+        assertThrows(IllegalStateException.class, () -> new UniformFleetSampler(none).sample(new SplittableRandom(1)));
+    }
+
+    @Test
+    void samplesAreLegalAndUniform() {
+        BoardSpec spec = new BoardSpec(3, 4, Map.of(ShipKind.CARAVEL, 1, ShipKind.BARGE, 2));
+        UniformFleetSampler sampler = new UniformFleetSampler(spec);
+        long fleets = sampler.count();
+        SplittableRandom random = new SplittableRandom(2024);
+
+        int draws = 40_000;
+        Map<String, Integer> seen = new HashMap<>();
+        for (int i = 0; i < draws; i++) {
+            Fleet fleet = sampler.sample(random);
+            assertEquals(3, fleet.getShips().size());
+            seen.merge(layout(fleet), 1, Integer::sum);
+        }
+
+        assertEquals(fleets, seen.size());
+        double expected = (double) draws / fleets;
+        for (int n : seen.values())
+            assertTrue(Math.abs(n - expected) < 5 * Math.sqrt(expected), "frequency " + n + " vs " + expected);
+    }
+
+    @Test
+    void countsLargerFleetsInParallel() {
+        BoardSpec spec = new BoardSpec(6, 6, Map.of(ShipKind.GALLEON, 1, ShipKind.CARRACK, 1, ShipKind.BARGE, 2));
+        UniformFleetSampler sampler = new UniformFleetSampler(spec);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(new FleetEnumerator(spec).count(), new UniformFleetSampler(spec, pool).count());
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(sampler.count() > 0);
+        assertEquals(4, sampler.sample(new SplittableRandom(5)).getShips().size());
+    }
+
+    // a few seconds and a few hundred megabytes: mvn test -DexcludedGroups=
+    @Test
+    @Tag("slow")
+    void countsAndSamplesTheDefaultBoard() {
+        assertTimeout(Duration.ofSeconds(60), () -> {
+            UniformFleetSampler sampler = new UniformFleetSampler(BoardSpec.DEFAULT);
+            assertEquals(6_176_754_266_272_264L, sampler.count());
+
+            SplittableRandom random = new SplittableRandom(11);
+            for (int i = 0; i < 1_000; i++)
+                assertEquals(BoardSpec.DEFAULT.getFleetSize(), sampler.sample(random).getShips().size());
+        });
+    }
+
+    @Test
+    void rejectsRowsTooWideToCount() {
+        assertThrows(IllegalArgumentException.class, () -> new UniformFleetSampler(new BoardSpec(10, 20)));
+    }
+}